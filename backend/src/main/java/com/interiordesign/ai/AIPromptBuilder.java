@@ -1,9 +1,16 @@
 package com.interiordesign.ai;
 
+import com.interiordesign.ai.model.AIDesignRules;
 import com.interiordesign.ai.model.AILayoutRequest;
 import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.KeepOutZone;
+import com.interiordesign.model.LayoutRule;
+import com.interiordesign.model.RoomPoint;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -13,9 +20,11 @@ import java.util.List;
 @Component
 public class AIPromptBuilder {
     
+    private static final int CHARS_PER_TOKEN = 4;  // Rough average for English text with numbers
+    
     /**
      * Build a detailed prompt for AI layout generation
-     * @param request Layout request with room dimensions, budget, and furniture catalog
+     * @param request Layout request with room dimensions, budget, furniture catalog and design rules
      * @return Formatted prompt string for AI
      */
     public String buildLayoutPrompt(AILayoutRequest request) {
@@ -29,41 +38,80 @@ public class AIPromptBuilder {
         prompt.append(String.format("Dimensions: %.1fm (length) × %.1fm (width)\n", 
                 request.getRoomLength(), request.getRoomWidth()));
         prompt.append(String.format("Total Area: %.1f m²\n", request.getRoomLength() * request.getRoomWidth()));
-        prompt.append(String.format("Budget: $%d\n\n", request.getBudget()));
+        prompt.append(String.format("Budget: $%d\n", request.getBudget()));
+        if (request.getOutline() != null && !request.getOutline().isEmpty()) {
+            // The dimensions above are then only the bounding rectangle
+            prompt.append("Room shape: the floor is the polygon with these corners, in order (x, y in meters); " +
+                    "everything outside it is wall\n  ");
+            for (RoomPoint point : request.getOutline()) {
+                prompt.append(String.format("(%.2f, %.2f) ", point.getX(), point.getY()));
+            }
+            prompt.append("\n");
+        }
+        if (request.getKeepOutZones() != null && !request.getKeepOutZones().isEmpty()) {
+            prompt.append("Keep-out zones (floor that must stay free, e.g. door swings):\n");
+            for (KeepOutZone zone : request.getKeepOutZones()) {
+                prompt.append(String.format("- x %.2f to %.2f, y %.2f to %.2f%s\n",
+                        zone.getX(), zone.getX() + zone.getWidth(), zone.getY(), zone.getY() + zone.getDepth(),
+                        zone.getLabel() == null || zone.getLabel().isBlank() ? "" : " (" + zone.getLabel() + ")"));
+            }
+        }
+        prompt.append("\n");
         
         // Available furniture catalog
         prompt.append("=== AVAILABLE FURNITURE CATALOG ===\n");
         List<Furniture> furniture = request.getAvailableFurniture();
+        List<Furniture> sets = new ArrayList<>();
         
         if (furniture != null && !furniture.isEmpty()) {
             for (Furniture item : furniture) {
-                prompt.append(String.format("- %s: %.1fm × %.1fm, $%d (category: %s)\n",
-                        item.getName(),
-                        item.getWidth(),
-                        item.getDepth(),
-                        item.getPrice(),
-                        item.getCategory()));
+                if (item instanceof FurnitureGroup) {
+                    sets.add(item);
+                } else {
+                    prompt.append(formatCatalogEntry(item));
+                }
             }
         }
         prompt.append("\n");
         
+        // Furniture sets, each placed as a single block
+        if (!sets.isEmpty()) {
+            prompt.append("=== FURNITURE SETS ===\n");
+            prompt.append("Each set is placed as ONE block with the listed size and price; its pieces are arranged inside it\n");
+            for (Furniture set : sets) {
+                prompt.append(formatCatalogEntry(set));
+            }
+            prompt.append("\n");
+        }
+        
         // Design requirements
+        AIDesignRules rules = request.getDesignRules();
         prompt.append("=== DESIGN REQUIREMENTS ===\n");
-        prompt.append("1. All furniture MUST fit within room boundaries\n");
-        prompt.append("2. Maintain at least 0.5m clearance from all walls\n");
+        prompt.append("1. All furniture MUST fit within room boundaries (inside the room shape and outside keep-out zones, when given)\n");
+        prompt.append(String.format("2. Maintain at least %.1fm clearance from all walls\n", rules.getWallClearance()));
         prompt.append("3. Total cost MUST NOT exceed the budget\n");
-        prompt.append("4. Avoid furniture overlaps - leave walking space between items\n");
+        prompt.append(String.format("4. Avoid furniture overlaps - leave at least %.1fm between items\n", rules.getDefaultGap()));
         prompt.append("5. Create a functional and aesthetically pleasing layout\n");
         prompt.append("6. Consider typical room flow and furniture relationships\n");
         prompt.append("7. Place larger items (sofas, beds) against walls when possible\n");
         prompt.append("8. Position seating to face entertainment centers or conversation areas\n\n");
         
+        // Category rules from the rule set
+        if (!rules.getRules().isEmpty()) {
+            prompt.append("=== CATEGORY RULES ===\n");
+            for (LayoutRule rule : rules.getRules()) {
+                prompt.append(formatRule(rule));
+            }
+            prompt.append("\n");
+        }
+        
         // Coordinate system explanation
         prompt.append("=== COORDINATE SYSTEM ===\n");
         prompt.append("- Origin (0, 0) is at the BOTTOM-LEFT corner of the room\n");
         prompt.append("- X-axis: horizontal (0 to room length)\n");
         prompt.append("- Y-axis: vertical (0 to room width)\n");
         prompt.append("- Furniture position (x, y) represents the BOTTOM-LEFT corner of the furniture\n");
+        prompt.append("- Rotation is 0 or 90 degrees; at 90 the item's width runs along the Y-axis and its depth along the X-axis\n");
         prompt.append("- Example: Room 5m × 4m, place sofa at (0.5, 0.5) means 0.5m from left wall and 0.5m from bottom wall\n\n");
         
         // Output format requirements
@@ -86,11 +134,75 @@ public class AIPromptBuilder {
         // Additional notes
         prompt.append("IMPORTANT NOTES:\n");
         prompt.append("- Use furniture names EXACTLY as listed in the catalog\n");
-        prompt.append("- Ensure x + furniture_width <= room_length\n");
-        prompt.append("- Ensure y + furniture_depth <= room_width\n");
+        prompt.append("- To use a set, add ONE entry with the set name; do not list its pieces separately\n");
+        prompt.append("- Ensure x + furniture_width <= room_length (use furniture_depth instead when rotated 90)\n");
+        prompt.append("- Ensure y + furniture_depth <= room_width (use furniture_width instead when rotated 90)\n");
+        prompt.append("- Rotate long items 90 degrees when they only fit that way\n");
         prompt.append("- Calculate totalCost by summing prices of selected furniture\n");
         prompt.append("- Return pure JSON only, no extra text before or after\n");
         
         return prompt.toString();
     }
+    
+    /**
+     * Format a single catalog line as it appears in the prompt
+     * @param item Furniture item
+     * @return Catalog line including trailing newline
+     */
+    public String formatCatalogEntry(Furniture item) {
+        if (item instanceof FurnitureGroup group) {
+            StringBuilder contents = new StringBuilder();
+            for (FurniturePosition member : group.getMembers()) {
+                if (contents.length() > 0) {
+                    contents.append(", ");
+                }
+                contents.append(member.getFurniture().getName());
+            }
+            return String.format("- %s: %.1fm × %.1fm, $%d (set: %s)\n",
+                    group.getName(),
+                    group.getWidth(),
+                    group.getDepth(),
+                    group.getPrice(),
+                    contents);
+        }
+        return String.format("- %s: %.1fm × %.1fm, $%d (category: %s)\n",
+                item.getName(),
+                item.getWidth(),
+                item.getDepth(),
+                item.getPrice(),
+                item.getCategory());
+    }
+    
+    /**
+     * Format a single category rule as it appears in the prompt
+     * @param rule Layout rule
+     * @return Rule line including trailing newline
+     */
+    private String formatRule(LayoutRule rule) {
+        if (rule.getType() == null) {
+            return "";  // Unknown rule_type; the rule set skips it too
+        }
+        switch (rule.getType()) {
+            case GAP:
+                return String.format("- Keep %s items at least %.1fm from other furniture\n",
+                        rule.getCategory(), rule.getValue());
+            case WALKWAY:
+                return String.format("- Leave a free walkway of at least %.1fm along one side of each %s\n",
+                        rule.getValue(), rule.getCategory());
+            case FACES:
+                return String.format("- Place each %s facing a %s across a long side, at most %.1fm away\n",
+                        rule.getCategory(), rule.getTargetCategory(), rule.getValue());
+            default:
+                return "";
+        }
+    }
+    
+    /**
+     * Estimate how many prompt tokens a number of characters consumes
+     * @param chars Prompt characters
+     * @return Approximate token count
+     */
+    public int estimateTokens(long chars) {
+        return (int) ((chars + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN);
+    }
 }
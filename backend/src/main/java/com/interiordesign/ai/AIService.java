@@ -1,6 +1,7 @@
 package com.interiordesign.ai;
 
 import com.interiordesign.ai.exception.AIServiceException;
+import com.interiordesign.ai.model.AIDesignRules;
 import com.interiordesign.ai.model.AILayoutRequest;
 import com.interiordesign.ai.model.AILayoutResponse;
 import com.interiordesign.model.Furniture;
@@ -63,10 +64,12 @@ public class AIService {
      * 
      * @param room Room specifications (dimensions and budget)
      * @param availableFurniture List of furniture items available for placement
+     * @param designRules Layout rules in effect, quoted in the prompt
      * @return AILayoutResponse with suggested furniture positions
      * @throws AIServiceException if AI call fails
      */
-    public AILayoutResponse getSuggestedLayout(Room room, List<Furniture> availableFurniture) {
+    public AILayoutResponse getSuggestedLayout(Room room, List<Furniture> availableFurniture,
+                                               AIDesignRules designRules) {
         logger.info("Requesting AI layout for room: {} x {} with budget ${}", 
                 room.getLength(), room.getWidth(), room.getBudget());
         
@@ -78,6 +81,9 @@ public class AIService {
                 room.getBudget(),
                 availableFurniture
             );
+            request.setOutline(room.getOutline());
+            request.setKeepOutZones(room.getKeepOutZones());
+            request.setDesignRules(designRules);
             
             // Build prompt
             String prompt = promptBuilder.buildLayoutPrompt(request);
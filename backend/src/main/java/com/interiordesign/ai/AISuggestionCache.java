@@ -0,0 +1,435 @@
+package com.interiordesign.ai;
+
+import com.interiordesign.ai.exception.AIServiceException;
+import com.interiordesign.ai.model.AILayoutResponse;
+import com.interiordesign.model.KeepOutZone;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of AI layout suggestions, with a time to live
+ * Keys are the room quantized to 10 cm, a budget bucket, the catalog snapshot version and the
+ * rule set fingerprint, so near-identical requests share one suggestion and a catalog or rule
+ * change misses naturally. Cached suggestions are never modified; every hit is still validated
+ * against the exact room by the rule engine
+ * Concurrent misses for one key are coalesced: the first request calls the AI and the others wait
+ * for the same in-flight call instead of starting their own
+ */
+@Component
+public class AISuggestionCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AISuggestionCache.class);
+    
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);  // Access order
+    private long weight;  // Sum of entry weights, guarded by this
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    
+    private final ConcurrentHashMap<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder aiCalls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();       // Requests that joined another's AI call
+    private final AtomicInteger waiting = new AtomicInteger();  // Requests blocked on another's AI call now
+    private final AtomicInteger maxWaiters = new AtomicInteger();  // Most requests that shared one AI call
+    
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled = true;
+    
+    @Value("${ai.cache.max-entries:1000}")
+    private int maxEntries = 1000;
+    
+    @Value("${ai.cache.max-weight:2000000}")
+    private long maxWeight = 2_000_000;  // Approximate characters of suggestion text held
+    
+    @Value("${ai.cache.ttl-seconds:3600}")
+    private long ttlSeconds = 3600;
+    
+    @Value("${ai.cache.budget-bucket:100}")
+    private int budgetBucket = 100;  // Dollars per budget bucket
+    
+    @Value("${ai.coalesce.enabled:true}")
+    private boolean coalesce = true;
+    
+    /**
+     * Build the cache key of a request
+     * 
+     * @param room Room specifications
+     * @param catalogVersion Version of the catalog snapshot the prompt is built from
+     * @param rulesVersion Version of the rule set quoted in the prompt
+     * @return Key shared by every request that quantizes to the same values
+     */
+    public Key keyFor(Room room, long catalogVersion, long rulesVersion) {
+        List<RoomPoint> outline = room.getOutline();
+        List<KeepOutZone> zones = room.getKeepOutZones();
+        int outlineSize = outline != null ? outline.size() : 0;
+        int zoneCount = zones != null ? zones.size() : 0;
+        
+        int[] shape = new int[1 + 2 * outlineSize + 4 * zoneCount];
+        String[] labels = new String[zoneCount];
+        int k = 0;
+        shape[k++] = outlineSize;  // Keeps an outline point from reading as a zone corner
+        for (int i = 0; i < outlineSize; i++) {
+            shape[k++] = decimetres(outline.get(i).getX());
+            shape[k++] = decimetres(outline.get(i).getY());
+        }
+        for (int i = 0; i < zoneCount; i++) {
+            KeepOutZone zone = zones.get(i);
+            shape[k++] = decimetres(zone.getX());
+            shape[k++] = decimetres(zone.getY());
+            shape[k++] = decimetres(zone.getWidth());
+            shape[k++] = decimetres(zone.getDepth());
+            labels[i] = zone.getLabel();
+        }
+        
+        return new Key(decimetres(room.getLength()), decimetres(room.getWidth()),
+                Math.floorDiv(room.getBudget(), Math.max(1, budgetBucket)),
+                catalogVersion, rulesVersion, shape, labels);
+    }
+    
+    /**
+     * Get the suggestion for a request from the cache, from an identical request's in-flight AI
+     * call, or from a new AI call whose result is then cached
+     * 
+     * @param key Request key
+     * @param regenerate Skip the cache lookup; an in-flight call is still joined, as it is fresh
+     * @param loader Calls the AI; runs on the calling thread
+     * @return Suggestion and where it came from
+     * @throws AIServiceException if the AI call this request made or joined failed
+     */
+    public Lookup fetch(Key key, boolean regenerate, Supplier<AILayoutResponse> loader) {
+        if (regenerate) {
+            if (enabled) {
+                recordBypass();
+            }
+        } else {
+            AILayoutResponse cached = get(key);
+            if (cached != null) {
+                return new Lookup(cached, "hit");
+            }
+        }
+        String source = !enabled ? "disabled" : regenerate ? "bypass" : "miss";
+        if (!coalesce) {
+            return new Lookup(load(key, loader), source);
+        }
+        
+        Flight flight = new Flight();
+        Flight leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return new Lookup(await(key, leader), "coalesced");
+        }
+        try {
+            // A call for this key may have finished between the lookup and registering this flight
+            AILayoutResponse response = !regenerate && enabled ? peek(key) : null;
+            if (response == null) {
+                response = load(key, loader);
+            }
+            flight.result.complete(response);
+            return new Lookup(response, source);
+        } catch (Throwable e) {
+            flight.result.completeExceptionally(e);  // Errors too, or the waiters would block forever
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);  // After put, so later requests hit the cache instead
+        }
+    }
+    
+    private AILayoutResponse load(Key key, Supplier<AILayoutResponse> loader) {
+        aiCalls.increment();
+        AILayoutResponse response = loader.get();
+        put(key, response);
+        return response;
+    }
+    
+    private AILayoutResponse await(Key key, Flight flight) {
+        int sharing = flight.waiters.incrementAndGet() + 1;  // The leader shares the call too
+        maxWaiters.accumulateAndGet(sharing, Math::max);
+        coalesced.increment();
+        waiting.incrementAndGet();
+        logger.debug("Waiting for the in-flight AI call of {} ({} requests share it)", key, sharing);
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new AIServiceException(cause.getMessage(), cause);  // A fresh exception per request
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Live entry for a key without counting a hit or a miss
+     */
+    private synchronized AILayoutResponse peek(Key key) {
+        Entry entry = entries.get(key);
+        return entry != null && !isExpired(entry, System.nanoTime()) ? entry.response : null;
+    }
+    
+    /**
+     * Look up a live suggestion, counting a hit or a miss
+     * 
+     * @param key Request key
+     * @return Cached suggestion, or null if absent, expired or the cache is disabled
+     */
+    public synchronized AILayoutResponse get(Key key) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.nanoTime())) {
+            entries.remove(key);
+            weight -= entry.weight;
+            expirations.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response;
+    }
+    
+    /**
+     * Store a suggestion, replacing any entry for the key, then evict least recently used entries
+     * until the size and weight limits hold again
+     * The response must not be modified afterwards
+     */
+    public synchronized void put(Key key, AILayoutResponse response) {
+        if (!enabled || response == null) {
+            return;
+        }
+        long entryWeight = weigh(response);
+        if (entryWeight > maxWeight) {
+            logger.debug("AI suggestion of weight {} exceeds the cache weight limit, not cached", entryWeight);
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(response, entryWeight, System.nanoTime()));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+        
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            weight -= evicted.weight;
+            evictions.increment();
+        }
+    }
+    
+    /**
+     * Count a request that skipped the lookup to get a fresh suggestion
+     */
+    public void recordBypass() {
+        bypasses.increment();
+    }
+    
+    /**
+     * Drop expired entries so they do not hold memory until evicted
+     */
+    @Scheduled(fixedDelayString = "${ai.cache.purge.interval.ms:60000}",
+               initialDelayString = "${ai.cache.purge.interval.ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.nanoTime();
+        int purged = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (isExpired(entry, now)) {
+                iterator.remove();
+                weight -= entry.weight;
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            expirations.add(purged);
+            logger.debug("Purged {} expired AI suggestions, {} remain", purged, entries.size());
+        }
+    }
+    
+    /**
+     * Counters and current occupancy of the cache, and of the in-flight AI calls
+     */
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("entries", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("weight", weight);
+        stats.put("maxWeight", maxWeight);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("bypasses", bypasses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("hitRate", hitCount + missCount > 0
+                ? Math.round(1000.0 * hitCount / (hitCount + missCount)) / 1000.0 : 0.0);
+        stats.put("aiCalls", aiCalls.sum());
+        stats.put("inFlight", inFlight.size());
+        stats.put("waiting", waiting.get());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("maxWaitersPerCall", maxWaiters.get());
+        return stats;
+    }
+    
+    private boolean isExpired(Entry entry, long now) {
+        return ttlSeconds > 0 && now - entry.storedAt > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+    
+    /**
+     * Approximate characters a suggestion holds: names and reasoning plus a fixed cost per object
+     */
+    private static long weigh(AILayoutResponse response) {
+        long weight = 64 + length(response.getReasoning());
+        if (response.getFurniture() != null) {
+            for (AILayoutResponse.AIFurniturePlacement placement : response.getFurniture()) {
+                weight += 32 + length(placement.getName()) + length(placement.getReasoning());
+            }
+        }
+        return weight;
+    }
+    
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+    
+    private static int decimetres(Double meters) {
+        return meters != null ? (int) Math.round(meters * 10) : Integer.MIN_VALUE;
+    }
+    
+    /**
+     * Quantized request parameters; equal keys share one cached suggestion
+     */
+    public static final class Key {
+        
+        private final int lengthDm;
+        private final int widthDm;
+        private final int budgetBucket;
+        private final long catalogVersion;
+        private final long rulesVersion;
+        private final int[] shape;        // Outline point count, outline points, then zone rectangles, in decimetres
+        private final String[] labels;    // Zone labels, which the prompt quotes
+        private final int hash;
+        
+        Key(int lengthDm, int widthDm, int budgetBucket, long catalogVersion, long rulesVersion,
+            int[] shape, String[] labels) {
+            this.lengthDm = lengthDm;
+            this.widthDm = widthDm;
+            this.budgetBucket = budgetBucket;
+            this.catalogVersion = catalogVersion;
+            this.rulesVersion = rulesVersion;
+            this.shape = shape;
+            this.labels = labels;
+            int h = Integer.hashCode(lengthDm);
+            h = 31 * h + Integer.hashCode(widthDm);
+            h = 31 * h + Integer.hashCode(budgetBucket);
+            h = 31 * h + Long.hashCode(catalogVersion);
+            h = 31 * h + Long.hashCode(rulesVersion);
+            h = 31 * h + Arrays.hashCode(shape);
+            this.hash = 31 * h + Arrays.hashCode(labels);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hash == other.hash
+                    && lengthDm == other.lengthDm
+                    && widthDm == other.widthDm
+                    && budgetBucket == other.budgetBucket
+                    && catalogVersion == other.catalogVersion
+                    && rulesVersion == other.rulesVersion
+                    && Arrays.equals(shape, other.shape)
+                    && Arrays.equals(labels, other.labels);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public String toString() {
+            return "Key{" +
+                    "lengthDm=" + lengthDm +
+                    ", widthDm=" + widthDm +
+                    ", budgetBucket=" + budgetBucket +
+                    ", catalogVersion=" + catalogVersion +
+                    ", shaped=" + (shape.length > 1) +
+                    '}';
+        }
+    }
+    
+    /**
+     * A suggestion and where it came from: hit, miss, bypass, coalesced or disabled
+     */
+    public static final class Lookup {
+        
+        private final AILayoutResponse response;
+        private final String source;
+        
+        Lookup(AILayoutResponse response, String source) {
+            this.response = response;
+            this.source = source;
+        }
+        
+        public AILayoutResponse getResponse() {
+            return response;
+        }
+        
+        public String getSource() {
+            return source;
+        }
+    }
+    
+    /**
+     * One AI call in progress and the requests waiting for it besides the one making it
+     */
+    private static final class Flight {
+        
+        final CompletableFuture<AILayoutResponse> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+    }
+    
+    private static final class Entry {
+        
+        final AILayoutResponse response;
+        final long weight;
+        final long storedAt;  // System.nanoTime()
+        
+        Entry(AILayoutResponse response, long weight, long storedAt) {
+            this.response = response;
+            this.weight = weight;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.interiordesign.ai.model;
+
+import com.interiordesign.model.LayoutRule;
+import java.util.List;
+
+/**
+ * Layout rules quoted in the AI prompt
+ * Filled by the caller from the rule set in effect, so the prompt and the validation agree
+ */
+public class AIDesignRules {
+
+    private final double wallClearance;  // Meters
+    private final double defaultGap;     // Meters, for categories without a GAP rule
+    private final List<LayoutRule> rules;
+
+    public AIDesignRules(double wallClearance, double defaultGap, List<LayoutRule> rules) {
+        this.wallClearance = wallClearance;
+        this.defaultGap = defaultGap;
+        this.rules = rules != null ? rules : List.of();
+    }
+
+    public double getWallClearance() {
+        return wallClearance;
+    }
+
+    public double getDefaultGap() {
+        return defaultGap;
+    }
+
+    public List<LayoutRule> getRules() {
+        return rules;
+    }
+
+    @Override
+    public String toString() {
+        return "AIDesignRules{" +
+                "wallClearance=" + wallClearance +
+                ", defaultGap=" + defaultGap +
+                ", rules=" + rules.size() +
+                '}';
+    }
+}
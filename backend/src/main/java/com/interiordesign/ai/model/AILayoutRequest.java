@@ -1,6 +1,8 @@
 package com.interiordesign.ai.model;
 
 import com.interiordesign.model.Furniture;
+import com.interiordesign.model.KeepOutZone;
+import com.interiordesign.model.RoomPoint;
 import java.util.List;
 
 /**
@@ -13,6 +15,9 @@ public class AILayoutRequest {
     private double roomWidth;
     private int budget;
     private List<Furniture> availableFurniture;
+    private List<RoomPoint> outline;          // Optional room outline in meters
+    private List<KeepOutZone> keepOutZones;   // Optional floor to keep free
+    private AIDesignRules designRules;        // Rules quoted in the prompt
 
     // Constructors
     public AILayoutRequest() {
@@ -57,4 +62,28 @@ public class AILayoutRequest {
     public void setAvailableFurniture(List<Furniture> availableFurniture) {
         this.availableFurniture = availableFurniture;
     }
+
+    public List<RoomPoint> getOutline() {
+        return outline;
+    }
+
+    public void setOutline(List<RoomPoint> outline) {
+        this.outline = outline;
+    }
+
+    public List<KeepOutZone> getKeepOutZones() {
+        return keepOutZones;
+    }
+
+    public void setKeepOutZones(List<KeepOutZone> keepOutZones) {
+        this.keepOutZones = keepOutZones;
+    }
+
+    public AIDesignRules getDesignRules() {
+        return designRules;
+    }
+
+    public void setDesignRules(AIDesignRules designRules) {
+        this.designRules = designRules;
+    }
 }
@@ -0,0 +1,13 @@
+package com.interiordesign.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration for background maintenance tasks
+ * Enables periodic refresh of the in-memory furniture catalog snapshot
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
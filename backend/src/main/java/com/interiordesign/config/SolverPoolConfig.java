@@ -0,0 +1,25 @@
+package com.interiordesign.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solver Pool Configuration
+ * One worker pool shared by candidate generation, the annealing refiner and large-space tiling,
+ * so concurrent requests queue their parallel work instead of each adding a thread per core
+ */
+@Configuration
+public class SolverPoolConfig {
+
+    /**
+     * Create the shared solver pool
+     * Shut down with the application context
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool solverPool(@Value("${layout.solver-pool.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
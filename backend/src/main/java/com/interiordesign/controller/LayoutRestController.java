@@ -1,9 +1,17 @@
 package com.interiordesign.controller;
 
 import com.interiordesign.model.Furniture;
+import com.interiordesign.model.LargeLayoutRequest;
+import com.interiordesign.model.LayoutDelta;
+import com.interiordesign.model.LayoutEditRequest;
+import com.interiordesign.model.LayoutMode;
+import com.interiordesign.model.LayoutValidationRequest;
+import com.interiordesign.model.LayoutValidationResponse;
 import com.interiordesign.model.Room;
 import com.interiordesign.model.RoomLayout;
+import com.interiordesign.service.LayoutEditService;
 import com.interiordesign.service.LayoutService;
+import com.interiordesign.service.LayoutValidationService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,12 +36,17 @@ public class LayoutRestController {
     private static final Logger logger = LoggerFactory.getLogger(LayoutRestController.class);
     
     private final LayoutService layoutService;
+    private final LayoutEditService layoutEditService;
+    private final LayoutValidationService layoutValidationService;
     
     @Value("${openrouter.api.key}")
     private String apiKey;
     
-    public LayoutRestController(LayoutService layoutService) {
+    public LayoutRestController(LayoutService layoutService, LayoutEditService layoutEditService,
+                                LayoutValidationService layoutValidationService) {
         this.layoutService = layoutService;
+        this.layoutEditService = layoutEditService;
+        this.layoutValidationService = layoutValidationService;
     }
     
     /**
@@ -53,7 +66,11 @@ public class LayoutRestController {
         response.put("endpoints", Map.of(
             "health", "/api/health",
             "furniture", "/api/furniture (GET)",
-            "layout", "/api/layout (POST)",
+            "layout", "/api/layout (POST, ?mode=ai|local|ai-with-local-fallback&refine=true|false&regenerate=true|false)",
+            "layoutCache", "/api/layout/cache (GET)",
+            "layoutLarge", "/api/layout/large (POST)",
+            "layoutEdit", "/api/layout/add, /api/layout/move, /api/layout/remove (POST)",
+            "validate", "/api/layouts/validate (POST)",
             "h2Console", "/h2-console"
         ));
         response.put("message", "Welcome to Interior Design API! This is a REST API. Please use the frontend at http://localhost:3000");
@@ -102,25 +119,33 @@ public class LayoutRestController {
     }
     
     /**
-     * Generate room layout with AI
-     * POST /api/layout
+     * Generate room layout with AI or the local solver
+     * POST /api/layout?mode=ai|local|ai-with-local-fallback&refine=true|false&regenerate=true|false
      * 
      * Request body: { "length": 5.0, "width": 4.0, "budget": 2000 }
      * 
      * @param room Room specifications (dimensions and budget)
+     * @param mode Optional generation mode; defaults to layout.default-mode
+     * @param refine Optional flag to run the time-bounded refiner; defaults to layout.refine.enabled
+     * @param regenerate Ask the AI again instead of reusing a cached suggestion for an equivalent room
      * @return Complete room layout with furniture positions and cost
      */
     @PostMapping("/layout")
-    public ResponseEntity<RoomLayout> generateLayout(@Valid @RequestBody Room room) {
-        logger.info("POST /api/layout - Generating layout for room: {} x {} with budget ${}",
-                room.getLength(), room.getWidth(), room.getBudget());
+    public ResponseEntity<RoomLayout> generateLayout(@Valid @RequestBody Room room,
+                                                     @RequestParam(required = false) String mode,
+                                                     @RequestParam(required = false) Boolean refine,
+                                                     @RequestParam(defaultValue = "false") boolean regenerate) {
+        logger.info("POST /api/layout - Generating layout for room: {} x {} with budget ${} (mode: {}, refine: {}, regenerate: {})",
+                room.getLength(), room.getWidth(), room.getBudget(), mode != null ? mode : "default",
+                refine != null ? refine : "default", regenerate);
         
         // Log request details
         logger.debug("Room area: {} m², Budget density: ${}/m²",
                 room.getArea(), room.getBudget() / room.getArea());
         
-        // Generate layout using AI and rules
-        RoomLayout layout = layoutService.createLayout(room);
+        // Generate layout using AI and rules, or the local solver
+        RoomLayout layout = layoutService.createLayout(room,
+                mode != null ? LayoutMode.fromValue(mode) : null, refine, regenerate);
         
         // Log response details
         logger.info("Layout generated: {} furniture items, total cost ${}, {} warnings",
@@ -133,6 +158,112 @@ public class LayoutRestController {
         return ResponseEntity.status(HttpStatus.OK).body(layout);
     }
     
+    /**
+     * Statistics of the AI suggestion cache
+     * GET /api/layout/cache
+     * 
+     * @return Entry count, weight, limits and hit/miss/eviction counters
+     */
+    @GetMapping("/layout/cache")
+    public ResponseEntity<Map<String, Object>> getSuggestionCacheStats() {
+        logger.info("GET /api/layout/cache - Fetching AI suggestion cache statistics");
+        return ResponseEntity.ok(layoutService.getSuggestionCacheStats());
+    }
+    
+    /**
+     * Furnish a large space with given quantities using the tiled local solver
+     * POST /api/layout/large
+     * 
+     * Request body: { "length": 60.0, "width": 40.0, "items": [ { "furniture": { "id": 9 }, "quantity": 400 } ] }
+     * 
+     * @param request Room (up to 200 m per side), optional budget and item quantities
+     * @return Layout with every placed piece and placement statistics
+     */
+    @PostMapping("/layout/large")
+    public ResponseEntity<RoomLayout> generateLargeLayout(@Valid @RequestBody LargeLayoutRequest request) {
+        logger.info("POST /api/layout/large - {}", request);
+        
+        RoomLayout layout = layoutService.createLargeLayout(request);
+        
+        logger.info("Large-space layout generated: {} furniture items, total cost ${}, {} warnings",
+                layout.getFurnitureCount(), layout.getTotalCost(), layout.getWarnings().size());
+        return ResponseEntity.ok(layout);
+    }
+    
+    /**
+     * Add one piece to an existing layout without regenerating it
+     * POST /api/layout/add
+     * 
+     * Request body: { "room": {...}, "furniture": [...], "item": { "furniture": { "id": 3 }, "x": 1.0, "y": 2.0 } }
+     * 
+     * @param request Room, current layout and the piece to add
+     * @return Delta with the placed piece and the new total cost
+     */
+    @PostMapping("/layout/add")
+    public ResponseEntity<LayoutDelta> addFurniture(@Valid @RequestBody LayoutEditRequest request) {
+        logger.info("POST /api/layout/add - {}", request);
+        return ResponseEntity.ok(logDelta(layoutEditService.addFurniture(request)));
+    }
+    
+    /**
+     * Move one piece of an existing layout without regenerating it
+     * POST /api/layout/move
+     * 
+     * Request body: { "room": {...}, "furniture": [...], "index": 2, "item": { "x": 1.0, "y": 2.0, "rotation": 90 } }
+     * 
+     * @param request Room, current layout, index of the piece and its new position
+     * @return Delta with the piece's resulting position
+     */
+    @PostMapping("/layout/move")
+    public ResponseEntity<LayoutDelta> moveFurniture(@Valid @RequestBody LayoutEditRequest request) {
+        logger.info("POST /api/layout/move - {}", request);
+        return ResponseEntity.ok(logDelta(layoutEditService.moveFurniture(request)));
+    }
+    
+    /**
+     * Remove one piece from an existing layout
+     * POST /api/layout/remove
+     * 
+     * Request body: { "room": {...}, "furniture": [...], "index": 2 }
+     * 
+     * @param request Room, current layout and index of the piece to remove
+     * @return Delta with the removed piece and the new total cost
+     */
+    @PostMapping("/layout/remove")
+    public ResponseEntity<LayoutDelta> removeFurniture(@Valid @RequestBody LayoutEditRequest request) {
+        logger.info("POST /api/layout/remove - {}", request);
+        return ResponseEntity.ok(logDelta(layoutEditService.removeFurniture(request)));
+    }
+    
+    /**
+     * Check one or many saved layouts against the layout rules
+     * POST /api/layouts/validate
+     * 
+     * Request body: { "layouts": [ { "id": "a", "room": {...}, "furniture": [...] } ] }
+     * 
+     * @param request Layouts to check
+     * @return Per-layout, per-item violations
+     */
+    @PostMapping("/layouts/validate")
+    public ResponseEntity<LayoutValidationResponse> validateLayouts(
+            @Valid @RequestBody LayoutValidationRequest request) {
+        logger.info("POST /api/layouts/validate - {} layouts", request.getLayouts().size());
+        
+        LayoutValidationResponse response = layoutValidationService.validate(request);
+        
+        logger.info("Validation complete: {} of {} layouts invalid",
+                response.getInvalidLayouts(), response.getLayoutsChecked());
+        return ResponseEntity.ok(response);
+    }
+    
+    private LayoutDelta logDelta(LayoutDelta delta) {
+        logger.info("Layout edit result: {}", delta);
+        if (!delta.getWarnings().isEmpty()) {
+            logger.warn("Layout edit warnings: {}", delta.getWarnings());
+        }
+        return delta;
+    }
+    
     /**
      * Test endpoint to verify API is responding
      * GET /api/test
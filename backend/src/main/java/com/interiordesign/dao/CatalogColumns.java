@@ -0,0 +1,255 @@
+package com.interiordesign.dao;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Columnar, read-only view of a catalog snapshot
+ * Each placeable piece is a row; dimensions in millimetres, prices and interned category ids sit
+ * in parallel primitive arrays so filters and solvers scan contiguous memory instead of chasing
+ * {@link Furniture} objects. Single items come first, ordered by price, then furniture sets
+ * The snapshot's objects are only looked up by row when a piece has to leave as a result
+ */
+public final class CatalogColumns {
+
+    private final int itemCount;             // Rows [0, itemCount) are single items, by price
+    private final Furniture[] pieces;        // By row, shared with the snapshot
+    private final int[] width;               // Millimetres
+    private final int[] depth;
+    private final int[] price;
+    private final int[] category;            // Interned category id of the piece (a set's anchor member)
+    private final int[][] memberCategories;  // Category ids of a set's members, with repeats; {category} for items
+    private final String[] categories;       // Category id -> name as first seen
+    private final int[] categoryOrder;       // Category id -> position when sorted by name
+    private final Map<String, Integer> itemRowsByExactName; // Name as stored -> first item with that spelling
+    private final Map<String, Integer> itemRowsByName;     // Case-folded, trimmed name -> first item in catalog order
+    private final Map<String, Integer> groupRowsByName;    // Case-folded, trimmed name -> first set
+
+    /**
+     * Build the columns for a catalog
+     *
+     * @param items Catalog rows ordered by category, price
+     * @param itemsByPrice The same rows ordered by price
+     * @param groups Furniture sets
+     */
+    CatalogColumns(List<Furniture> items, List<Furniture> itemsByPrice, List<FurnitureGroup> groups) {
+        int size = itemsByPrice.size() + groups.size();
+        this.itemCount = itemsByPrice.size();
+        this.pieces = new Furniture[size];
+        this.width = new int[size];
+        this.depth = new int[size];
+        this.price = new int[size];
+        this.category = new int[size];
+        this.memberCategories = new int[size][];
+
+        Map<String, Integer> categoryIds = new HashMap<>();
+        List<String> categoryNames = new ArrayList<>();
+        Map<Furniture, Integer> rowOf = new IdentityHashMap<>(size * 2);
+        for (int row = 0; row < size; row++) {
+            Furniture piece = row < itemCount ? itemsByPrice.get(row) : groups.get(row - itemCount);
+            pieces[row] = piece;
+            width[row] = piece.getWidthMm();
+            depth[row] = piece.getDepthMm();
+            price[row] = piece.getPrice();
+            category[row] = intern(piece.getCategory(), categoryIds, categoryNames);
+            if (piece instanceof FurnitureGroup group) {
+                int[] members = new int[group.getMembers().size()];
+                for (int m = 0; m < members.length; m++) {
+                    members[m] = intern(group.getMembers().get(m).getFurniture().getCategory(),
+                            categoryIds, categoryNames);
+                }
+                memberCategories[row] = members;
+            } else {
+                memberCategories[row] = new int[] {category[row]};
+            }
+            rowOf.put(piece, row);
+        }
+        this.categories = categoryNames.toArray(new String[0]);
+        this.categoryOrder = orderByName(categories);
+
+        // Name dictionary; lookups keep the first match in catalog order, like the SQL scan
+        Map<String, Integer> exact = new HashMap<>(itemCount * 2);
+        Map<String, Integer> itemRows = new HashMap<>(itemCount * 2);
+        for (Furniture item : items) {
+            if (item.getName() != null) {
+                exact.putIfAbsent(item.getName(), rowOf.get(item));
+                itemRows.putIfAbsent(CatalogSnapshot.nameKey(item.getName()), rowOf.get(item));
+            }
+        }
+        Map<String, Integer> groupRows = new HashMap<>(groups.size() * 2);
+        for (FurnitureGroup group : groups) {
+            groupRows.putIfAbsent(CatalogSnapshot.nameKey(group.getName()), rowOf.get(group));
+        }
+        this.itemRowsByExactName = exact;
+        this.itemRowsByName = itemRows;
+        this.groupRowsByName = groupRows;
+    }
+
+    /**
+     * Number of rows, items and sets together
+     */
+    public int size() {
+        return pieces.length;
+    }
+
+    /**
+     * Number of single-item rows; they come first, ordered by price
+     */
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Width of a row in millimetres
+     */
+    public int width(int row) {
+        return width[row];
+    }
+
+    /**
+     * Depth of a row in millimetres
+     */
+    public int depth(int row) {
+        return depth[row];
+    }
+
+    public int price(int row) {
+        return price[row];
+    }
+
+    /**
+     * Interned category id of a row; a set has its anchor member's category
+     */
+    public int category(int row) {
+        return category[row];
+    }
+
+    /**
+     * Category ids of a set's members in member order, repeats included; a single item's own category
+     * The array is shared and must not be modified
+     */
+    public int[] memberCategories(int row) {
+        return memberCategories[row];
+    }
+
+    public boolean isGroup(int row) {
+        return row >= itemCount;
+    }
+
+    /**
+     * Number of distinct categories; ids run from 0 to this count - 1
+     */
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    /**
+     * Name of a category id
+     */
+    public String categoryName(int id) {
+        return categories[id];
+    }
+
+    /**
+     * Position of a category id when categories are sorted by name
+     */
+    public int categoryOrder(int id) {
+        return categoryOrder[id];
+    }
+
+    /**
+     * The catalog object of a row, for results that leave the solvers
+     */
+    public Furniture piece(int row) {
+        return pieces[row];
+    }
+
+    /**
+     * Number of single items priced at or below maxPrice; they are rows [0, count)
+     */
+    public int countItemsUpTo(int maxPrice) {
+        int low = 0;
+        int high = itemCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (price[mid] <= maxPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Row of an item by name (case-insensitive, surrounding whitespace ignored), or -1
+     */
+    public int findItemRow(String name) {
+        return name == null ? -1 : itemRowsByName.getOrDefault(CatalogSnapshot.nameKey(name), -1);
+    }
+
+    /**
+     * Row of a furniture set by name (case-insensitive, surrounding whitespace ignored), or -1
+     */
+    public int findGroupRow(String name) {
+        return name == null ? -1 : groupRowsByName.getOrDefault(CatalogSnapshot.nameKey(name), -1);
+    }
+
+    /**
+     * Row of anything placeable by name: an item, or else a set; -1 if neither exists
+     * An item spelled exactly as stored is matched first, without case folding; sets only when no item matches
+     */
+    public int findRow(String name) {
+        if (name == null) {
+            return -1;
+        }
+        // Names are usually copied verbatim from the catalog; match those without building a key
+        Integer exact = itemRowsByExactName.get(name);
+        if (exact != null) {
+            return exact;
+        }
+        int row = findItemRow(name);
+        return row >= 0 ? row : findGroupRow(name);
+    }
+
+    private static int intern(String category, Map<String, Integer> ids, List<String> names) {
+        String key = category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = names.size();
+            ids.put(key, id);
+            names.add(category == null ? "" : category);
+        }
+        return id;
+    }
+
+    private static int[] orderByName(String[] names) {
+        Integer[] ids = new Integer[names.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        Arrays.sort(ids, (a, b) -> names[a].compareTo(names[b]));
+        int[] order = new int[names.length];
+        for (int position = 0; position < ids.length; position++) {
+            order[ids[position]] = position;
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogColumns{" +
+                "items=" + itemCount +
+                ", groups=" + (pieces.length - itemCount) +
+                ", categories=" + categories.length +
+                '}';
+    }
+}
@@ -0,0 +1,212 @@
+package com.interiordesign.dao;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of the furniture catalog
+ * Built once per catalog change and shared by all readers without locking; its rows are made
+ * read-only so no reader can change what another sees
+ * Besides the object lists it carries a {@link CatalogColumns} view for primitive scans
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Furniture> items;          // Ordered by category, price (same as the SQL scan)
+    private final List<Furniture> itemsByPrice;   // Ordered by price for budget range lookups
+    private final int[] sortedPrices;             // Prices of itemsByPrice, for binary search
+    private final Map<String, List<Furniture>> itemsByCategory;  // Lower-cased category -> items by price
+    private final Map<Long, Furniture> itemsById;
+    private final List<FurnitureGroup> groups;    // Furniture sets placed as one block
+    private final CatalogColumns columns;         // Columnar view, also the name dictionary
+
+    private CatalogSnapshot(long version, List<Furniture> items, List<FurnitureGroup> groups) {
+        this.version = version;
+        for (Furniture item : items) {
+            item.makeReadOnly();
+        }
+        for (FurnitureGroup group : groups) {
+            group.makeReadOnly();  // Members are catalog rows, made read-only above
+        }
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.groups = Collections.unmodifiableList(new ArrayList<>(groups));
+
+        List<Furniture> byPrice = new ArrayList<>(items);
+        byPrice.sort(Comparator.comparingInt(Furniture::getPrice));  // Stable: keeps category order for ties
+        this.itemsByPrice = Collections.unmodifiableList(byPrice);
+        this.sortedPrices = new int[byPrice.size()];
+        for (int i = 0; i < sortedPrices.length; i++) {
+            sortedPrices[i] = byPrice.get(i).getPrice();
+        }
+
+        Map<String, List<Furniture>> byCategory = new HashMap<>();
+        for (Furniture furniture : byPrice) {
+            byCategory.computeIfAbsent(categoryKey(furniture.getCategory()), k -> new ArrayList<>()).add(furniture);
+        }
+        byCategory.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        this.itemsByCategory = Collections.unmodifiableMap(byCategory);
+
+        Map<Long, Furniture> byId = new HashMap<>(items.size() * 2);
+        for (Furniture furniture : items) {
+            if (furniture.getId() != null) {
+                byId.putIfAbsent(furniture.getId(), furniture);
+            }
+        }
+        this.itemsById = Collections.unmodifiableMap(byId);
+
+        this.columns = new CatalogColumns(this.items, this.itemsByPrice, this.groups);
+    }
+
+    /**
+     * Build a snapshot from catalog rows
+     * @param version Monotonic snapshot version
+     * @param items Catalog rows ordered by category, price
+     * @return New immutable snapshot
+     */
+    public static CatalogSnapshot of(long version, List<Furniture> items) {
+        return of(version, items, Collections.emptyList());
+    }
+
+    /**
+     * Build a snapshot from catalog rows and furniture sets
+     * @param version Monotonic snapshot version
+     * @param items Catalog rows ordered by category, price
+     * @param groups Furniture sets whose members are catalog items
+     * @return New immutable snapshot
+     */
+    public static CatalogSnapshot of(long version, List<Furniture> items, List<FurnitureGroup> groups) {
+        return new CatalogSnapshot(version, items, groups);
+    }
+
+    /**
+     * Whether freshly read rows and sets are exactly this snapshot's content, in the same order
+     * Compares every field, so a changed row is never mistaken for an unchanged one
+     */
+    public boolean hasSameContent(List<Furniture> otherItems, List<FurnitureGroup> otherGroups) {
+        return items.equals(otherItems) && groups.equals(otherGroups);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * All catalog items ordered by category, price
+     * Items are shared between readers and must not be modified
+     */
+    public List<Furniture> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Furniture sets, each placeable as a single block
+     */
+    public List<FurnitureGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Columnar view of the items and sets
+     */
+    public CatalogColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Look up an item by name (case-insensitive, surrounding whitespace ignored)
+     * @return Matching furniture, or null if the catalog has no such item
+     */
+    public Furniture findByName(String name) {
+        int row = columns.findItemRow(name);
+        return row < 0 ? null : columns.piece(row);
+    }
+
+    /**
+     * Look up anything that can be placed by name: a catalog item, or else a furniture set
+     * A name spelled exactly as stored is matched first, without case folding
+     * @return Matching item or set, or null if neither exists
+     */
+    public Furniture findPlaceable(String name) {
+        int row = columns.findRow(name);
+        return row < 0 ? null : columns.piece(row);
+    }
+
+    /**
+     * Look up an item by id
+     * @return Matching furniture, or null if the catalog has no such item
+     */
+    public Furniture findById(Long id) {
+        return id == null ? null : itemsById.get(id);
+    }
+
+    /**
+     * Items in the given category (case-insensitive), ordered by price
+     */
+    public List<Furniture> findByCategory(String category) {
+        if (category == null) {
+            return Collections.emptyList();
+        }
+        return itemsByCategory.getOrDefault(categoryKey(category), Collections.emptyList());
+    }
+
+    /**
+     * Items priced at or below maxPrice, ordered by price
+     */
+    public List<Furniture> findByPriceRange(int maxPrice) {
+        return itemsByPrice.subList(0, upperBound(maxPrice));
+    }
+
+    /**
+     * Index of the first item in price order whose price exceeds maxPrice
+     */
+    private int upperBound(int maxPrice) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] <= maxPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Normalize a furniture name for index lookups
+     */
+    public static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogSnapshot{" +
+                "version=" + version +
+                ", items=" + items.size() +
+                ", groups=" + groups.size() +
+                ", categories=" + itemsByCategory.size() +
+                '}';
+    }
+}
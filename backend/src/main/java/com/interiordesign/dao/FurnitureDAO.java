@@ -1,27 +1,44 @@
 package com.interiordesign.dao;
 
 import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Data Access Object for Furniture entity
  * Handles all database operations for furniture catalog
+ * Catalog reads are served from an in-memory {@link CatalogSnapshot} that is
+ * swapped atomically whenever the furniture table changes
  */
 @Repository
 public class FurnitureDAO {
     
     private static final Logger logger = LoggerFactory.getLogger(FurnitureDAO.class);
     
+    private static final RowMapper<Furniture> ROW_MAPPER = new FurnitureRowMapper();
+    
     private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong snapshotVersion = new AtomicLong();
     
     public FurnitureDAO(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
@@ -45,27 +62,115 @@ public class FurnitureDAO {
     }
     
     /**
-     * Find all furniture items in the catalog
-     * @return List of all furniture
+     * Get the current catalog snapshot, loading it on first access
+     * @return Immutable catalog snapshot
      */
-    public List<Furniture> findAll() {
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        return current != null ? current : loadInitialSnapshot();
+    }
+    
+    /**
+     * Load the first snapshot; concurrent first readers share a single table scan
+     */
+    private synchronized CatalogSnapshot loadInitialSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null) {
+            List<Furniture> rows = queryAll();
+            current = CatalogSnapshot.of(snapshotVersion.incrementAndGet(), rows, queryGroups(rows));
+            snapshot.set(current);
+            logger.info("Loaded furniture catalog snapshot: {}", current);
+        }
+        return current;
+    }
+    
+    /**
+     * Reload the catalog and swap the snapshot if the table content changed
+     * Runs periodically so edits to the furniture table become visible without a restart
+     * @return Snapshot in effect after the check
+     */
+    @Scheduled(fixedDelayString = "${catalog.refresh.interval.ms:60000}",
+               initialDelayString = "${catalog.refresh.interval.ms:60000}")
+    public synchronized CatalogSnapshot refreshSnapshot() {
+        List<Furniture> rows = queryAll();
+        List<FurnitureGroup> groups = queryGroups(rows);
+        CatalogSnapshot current = snapshot.get();
+        if (current != null && current.hasSameContent(rows, groups)) {
+            logger.debug("Furniture catalog unchanged (version {})", current.getVersion());
+            return current;
+        }
+        CatalogSnapshot updated = CatalogSnapshot.of(snapshotVersion.incrementAndGet(), rows, groups);
+        snapshot.set(updated);
+        logger.info("Furniture catalog changed, swapped snapshot: {}", updated);
+        return updated;
+    }
+    
+    /**
+     * Scan the furniture table
+     */
+    private List<Furniture> queryAll() {
         String sql = "SELECT * FROM furniture ORDER BY category, price";
         logger.debug("Fetching all furniture from database");
-        List<Furniture> furniture = jdbcTemplate.query(sql, new FurnitureRowMapper());
+        List<Furniture> furniture = jdbcTemplate.query(sql, ROW_MAPPER);
         logger.debug("Retrieved {} furniture items", furniture.size());
         return furniture;
     }
     
+    /**
+     * Scan the furniture set tables and build each set from the given catalog rows
+     * Sets referring to a piece that is not in the catalog are skipped
+     */
+    private List<FurnitureGroup> queryGroups(List<Furniture> items) {
+        String sql = "SELECT g.id AS group_id, g.name, m.furniture_id, m.offset_x, m.offset_y, m.rotation " +
+                     "FROM furniture_group g JOIN furniture_group_member m ON m.group_id = g.id " +
+                     "ORDER BY g.id, m.id";
+        Map<Long, Furniture> itemsById = new HashMap<>(items.size() * 2);
+        for (Furniture item : items) {
+            itemsById.put(item.getId(), item);
+        }
+        
+        Map<Long, String> names = new LinkedHashMap<>();
+        Map<Long, List<FurniturePosition>> members = new HashMap<>();
+        Set<Long> incomplete = new HashSet<>();
+        jdbcTemplate.query(sql, rs -> {
+            long groupId = rs.getLong("group_id");
+            names.put(groupId, rs.getString("name"));
+            Furniture furniture = itemsById.get(rs.getLong("furniture_id"));
+            if (furniture == null) {
+                incomplete.add(groupId);
+                return;
+            }
+            members.computeIfAbsent(groupId, k -> new ArrayList<>()).add(new FurniturePosition(furniture,
+                    rs.getDouble("offset_x"), rs.getDouble("offset_y"), rs.getInt("rotation")));
+        });
+        
+        List<FurnitureGroup> groups = new ArrayList<>(names.size());
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            if (incomplete.contains(entry.getKey())) {
+                logger.warn("Furniture set '{}' refers to a piece missing from the catalog, skipping", entry.getValue());
+                continue;
+            }
+            groups.add(new FurnitureGroup(entry.getKey(), entry.getValue(), members.get(entry.getKey())));
+        }
+        logger.debug("Retrieved {} furniture sets", groups.size());
+        return groups;
+    }
+    
+    /**
+     * Find all furniture items in the catalog
+     * @return Unmodifiable list of all furniture, ordered by category and price
+     */
+    public List<Furniture> findAll() {
+        return getSnapshot().getItems();
+    }
+    
     /**
      * Find furniture by ID
      * @param id Furniture ID
      * @return Optional containing furniture if found
      */
     public Optional<Furniture> findById(Long id) {
-        String sql = "SELECT * FROM furniture WHERE id = ?";
-        logger.debug("Fetching furniture with id: {}", id);
-        List<Furniture> results = jdbcTemplate.query(sql, new FurnitureRowMapper(), id);
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        return Optional.ofNullable(getSnapshot().findById(id));
     }
     
     /**
@@ -74,10 +179,7 @@ public class FurnitureDAO {
      * @return Optional containing furniture if found
      */
     public Optional<Furniture> findByName(String name) {
-        String sql = "SELECT * FROM furniture WHERE LOWER(name) = LOWER(?)";
-        logger.debug("Fetching furniture with name: {}", name);
-        List<Furniture> results = jdbcTemplate.query(sql, new FurnitureRowMapper(), name);
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        return Optional.ofNullable(getSnapshot().findByName(name));
     }
     
     /**
@@ -86,9 +188,7 @@ public class FurnitureDAO {
      * @return List of furniture within budget
      */
     public List<Furniture> findByPriceRange(int maxPrice) {
-        String sql = "SELECT * FROM furniture WHERE price <= ? ORDER BY price";
-        logger.debug("Fetching furniture with price <= {}", maxPrice);
-        return jdbcTemplate.query(sql, new FurnitureRowMapper(), maxPrice);
+        return getSnapshot().findByPriceRange(maxPrice);
     }
     
     /**
@@ -97,9 +197,7 @@ public class FurnitureDAO {
      * @return List of furniture in category
      */
     public List<Furniture> findByCategory(String category) {
-        String sql = "SELECT * FROM furniture WHERE LOWER(category) = LOWER(?) ORDER BY price";
-        logger.debug("Fetching furniture in category: {}", category);
-        return jdbcTemplate.query(sql, new FurnitureRowMapper(), category);
+        return getSnapshot().findByCategory(category);
     }
     
     /**
@@ -0,0 +1,61 @@
+package com.interiordesign.dao;
+
+import com.interiordesign.model.LayoutRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Data Access Object for the layout_rule table
+ * Rows are read as-is; compiling them into an evaluable rule set is up to the caller
+ */
+@Repository
+public class LayoutRuleDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayoutRuleDAO.class);
+
+    private static final RowMapper<LayoutRule> ROW_MAPPER = (rs, rowNum) -> new LayoutRule(
+            rs.getLong("id"),
+            rs.getString("category"),
+            parseType(rs.getLong("id"), rs.getString("rule_type")),
+            rs.getString("target_category"),
+            rs.getDouble("rule_value"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LayoutRuleDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Read all layout rules
+     * @return Rules ordered by id
+     */
+    public List<LayoutRule> findAll() {
+        String sql = "SELECT * FROM layout_rule ORDER BY id";
+        List<LayoutRule> rules = jdbcTemplate.query(sql, ROW_MAPPER);
+        logger.debug("Retrieved {} layout rules", rules.size());
+        return rules;
+    }
+
+    /**
+     * Map a rule_type column to its type
+     * @return Rule type, or null for a missing or unknown type; the rule set compiler skips such rows
+     */
+    private static LayoutRule.Type parseType(long id, String ruleType) {
+        if (ruleType != null) {
+            try {
+                return LayoutRule.Type.valueOf(ruleType.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // Fall through to the warning below
+            }
+        }
+        logger.warn("Layout rule {} has unknown rule_type '{}'", id, ruleType);
+        return null;
+    }
+}
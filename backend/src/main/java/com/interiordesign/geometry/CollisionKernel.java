@@ -0,0 +1,101 @@
+package com.interiordesign.geometry;
+
+/**
+ * Rectangle tests over struct-of-arrays box coordinates in whole millimetres
+ * Two boxes collide when they are closer than the sum of their margins on both axes, the same
+ * rule the sweep-line validator applies; touching at exactly that distance is allowed
+ * The bulk entry points run on the incubating Vector API when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector} and fall back to scalar loops otherwise, with
+ * identical results either way; integer lanes make every comparison exact
+ */
+public final class CollisionKernel {
+
+    private static final boolean VECTORIZED =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private CollisionKernel() {
+    }
+
+    /**
+     * Whether the bulk tests run on SIMD lanes
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Lanes processed per step by the bulk tests, 1 for the scalar fallback
+     */
+    public static int laneCount() {
+        return VECTORIZED ? VectorCollisionKernel.laneCount() : 1;
+    }
+
+    /**
+     * Whether the box [x0, x1] × [y0, y1] lies inside [boundMinX, boundMaxX] × [boundMinY, boundMaxY]
+     */
+    public static boolean inside(int x0, int y0, int x1, int y1,
+                                 int boundMinX, int boundMinY, int boundMaxX, int boundMaxY) {
+        return x0 >= boundMinX && y0 >= boundMinY && x1 <= boundMaxX && y1 <= boundMaxY;
+    }
+
+    /**
+     * Whether two boxes are closer than the given gap on both axes
+     */
+    public static boolean collides(int ax0, int ay0, int ax1, int ay1, int gap,
+                                   int bx0, int by0, int bx1, int by1) {
+        return ax0 - gap < bx1 && ax1 + gap > bx0 && ay0 - gap < by1 && ay1 + gap > by0;
+    }
+
+    /**
+     * Find the first box in [from, to) that collides with the candidate box
+     *
+     * @param margin Margin of the candidate; each box adds its own from {@code margins}
+     * @return Index of the first colliding box, or -1 if the candidate is clear of all of them
+     */
+    public static int firstCollision(int x0, int y0, int x1, int y1, int margin,
+                                     int[] minX, int[] minY, int[] maxX, int[] maxY,
+                                     int[] margins, int from, int to) {
+        if (VECTORIZED) {
+            return VectorCollisionKernel.firstCollision(x0, y0, x1, y1, margin,
+                    minX, minY, maxX, maxY, margins, from, to);
+        }
+        return scalarFirstCollision(x0, y0, x1, y1, margin, minX, minY, maxX, maxY, margins, from, to);
+    }
+
+    /**
+     * Test n candidate boxes against the bounds and the first m placed boxes
+     *
+     * @param margin Margin shared by all candidates
+     * @param hits Set to whether each candidate leaves the bounds or collides with a placed box;
+     *             length at least n
+     * @return Index of the first clear candidate, or -1 if none is clear
+     */
+    public static int firstClear(int[] candMinX, int[] candMinY, int[] candMaxX, int[] candMaxY,
+                                 int n, int margin,
+                                 int boundMinX, int boundMinY, int boundMaxX, int boundMaxY,
+                                 int[] minX, int[] minY, int[] maxX, int[] maxY,
+                                 int[] margins, int m, boolean[] hits) {
+        int firstClear = -1;
+        for (int k = 0; k < n; k++) {
+            hits[k] = !inside(candMinX[k], candMinY[k], candMaxX[k], candMaxY[k],
+                              boundMinX, boundMinY, boundMaxX, boundMaxY) ||
+                      firstCollision(candMinX[k], candMinY[k], candMaxX[k], candMaxY[k], margin,
+                              minX, minY, maxX, maxY, margins, 0, m) >= 0;
+            if (!hits[k] && firstClear < 0) {
+                firstClear = k;
+            }
+        }
+        return firstClear;
+    }
+
+    static int scalarFirstCollision(int x0, int y0, int x1, int y1, int margin,
+                                    int[] minX, int[] minY, int[] maxX, int[] maxY,
+                                    int[] margins, int from, int to) {
+        for (int j = from; j < to; j++) {
+            if (collides(x0, y0, x1, y1, margin + margins[j], minX[j], minY[j], maxX[j], maxY[j])) {
+                return j;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,71 @@
+package com.interiordesign.geometry;
+
+/**
+ * Configuration-space free region of one footprint size over an occupancy bitmap
+ * Stores, for every cell, whether a footprint with its bottom-left corner there fits without
+ * touching an occupied cell, so snapping a requested position to the nearest valid one is a
+ * lookup instead of repeated fit tests
+ * Kept in sync with the occupancy by {@link #occupy}: a new obstacle blocks exactly the origins
+ * in its Minkowski sum with the footprint
+ * Not thread-safe; build one map per layout pass
+ */
+public class FeasibleRegionMap {
+
+    private final OccupancyBitmap blocked;
+    private final int width;
+    private final int height;
+
+    /**
+     * Build the free region of a footprint over the current occupancy
+     *
+     * @param occupancy Occupied cells (walls, clearance band, placed pieces)
+     * @param width Footprint width in cells
+     * @param height Footprint height in cells
+     */
+    public FeasibleRegionMap(OccupancyBitmap occupancy, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Footprint must be at least one cell");
+        }
+        this.blocked = occupancy.blockedOrigins(width, height);
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Record a new obstacle covering the given cells
+     */
+    public void occupy(int column, int row, int obstacleWidth, int obstacleHeight) {
+        int c0 = Math.max(0, column - width + 1);
+        int r0 = Math.max(0, row - height + 1);
+        int c1 = Math.min(blocked.getColumns(), column + obstacleWidth);
+        int r1 = Math.min(blocked.getRows(), row + obstacleHeight);
+        if (c0 < c1 && r0 < r1) {
+            blocked.occupyCells(c0, r0, c1 - c0, r1 - r0);
+        }
+    }
+
+    /**
+     * Whether a footprint with its bottom-left corner at the given cell fits
+     */
+    public boolean isFeasible(int column, int row) {
+        return blocked.isFreeCells(column, row, 1, 1);
+    }
+
+    /**
+     * Find the feasible origin closest to the given cell
+     *
+     * @return Nearest feasible origin packed as by {@link OccupancyBitmap#packCell},
+     *         or {@link OccupancyBitmap#NO_CELL} if the footprint fits nowhere
+     */
+    public long findNearest(int column, int row) {
+        return blocked.findNearestFree(column, row);
+    }
+}
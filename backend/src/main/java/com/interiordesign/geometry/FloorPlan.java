@@ -0,0 +1,418 @@
+package com.interiordesign.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Usable floor of a room in whole millimetres: a polygon outline inside the bounding rectangle
+ * [0, length] × [0, width], minus rectangular keep-out zones (door swings, radiators, columns)
+ * A room without an outline is its bounding rectangle
+ *
+ * The outline is rasterized once into an {@link OccupancyBitmap} of blocked cells and decomposed into
+ * obstacle rectangles for the packer; both are cached, so per-candidate fit checks stay bitmap
+ * lookups. {@link #fits} is the exact test behind them, for the borderline cases a grid rounds away
+ * Immutable apart from those caches, which are safe to build from several threads
+ */
+public final class FloorPlan {
+
+    /** Cell edge of the raster decomposed into packer obstacles; rectilinear plans on a 5 cm grid are exact */
+    private static final int OBSTACLE_RESOLUTION = 50;
+
+    private final int length;
+    private final int width;
+    private final int[] outlineX;  // Vertices in order, null for a rectangular room
+    private final int[] outlineY;
+    private final int[] zoneMinX;
+    private final int[] zoneMinY;
+    private final int[] zoneMaxX;
+    private final int[] zoneMaxY;
+
+    private volatile Raster blocked;          // Last blocked-cell template handed out
+    private volatile Raster obstacles;        // Last obstacle decomposition
+
+    /**
+     * Create a plan
+     *
+     * @param outlineX Outline vertex x coordinates in order, or null for the bounding rectangle
+     * @param outlineY Outline vertex y coordinates, same length
+     * @param keepOut Keep-out zones as {minX, minY, maxX, maxY}
+     * @throws IllegalArgumentException if the outline is degenerate, crosses itself or leaves the
+     *         bounding rectangle, or a keep-out zone is empty or outside the room
+     */
+    public FloorPlan(int length, int width, int[] outlineX, int[] outlineY, List<int[]> keepOut) {
+        if (length <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Room dimensions must be positive");
+        }
+        this.length = length;
+        this.width = width;
+        if (outlineX != null) {
+            validateOutline(outlineX, outlineY);
+        }
+        this.outlineX = outlineX;
+        this.outlineY = outlineY;
+
+        int zones = keepOut == null ? 0 : keepOut.size();
+        this.zoneMinX = new int[zones];
+        this.zoneMinY = new int[zones];
+        this.zoneMaxX = new int[zones];
+        this.zoneMaxY = new int[zones];
+        for (int i = 0; i < zones; i++) {
+            int[] zone = keepOut.get(i);
+            if (zone[0] >= zone[2] || zone[1] >= zone[3]) {
+                throw new IllegalArgumentException("Keep-out zone " + (i + 1) + " must have a positive size");
+            }
+            if (zone[0] < 0 || zone[1] < 0 || zone[2] > length || zone[3] > width) {
+                throw new IllegalArgumentException("Keep-out zone " + (i + 1) + " lies outside the room");
+            }
+            zoneMinX[i] = zone[0];
+            zoneMinY[i] = zone[1];
+            zoneMaxX[i] = zone[2];
+            zoneMaxY[i] = zone[3];
+        }
+    }
+
+    /**
+     * Plan of a plain rectangular room
+     */
+    public static FloorPlan rectangle(int length, int width) {
+        return new FloorPlan(length, width, null, null, null);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Whether the room is just its bounding rectangle, with no outline and no keep-out zones
+     */
+    public boolean isRectangle() {
+        return outlineX == null && zoneMinX.length == 0;
+    }
+
+    public boolean hasOutline() {
+        return outlineX != null;
+    }
+
+    public int getKeepOutCount() {
+        return zoneMinX.length;
+    }
+
+    /**
+     * Floor area enclosed by the outline in mm², keep-out zones included
+     */
+    public long getArea() {
+        return outlineX == null ? (long) length * width : area(outlineX, outlineY);
+    }
+
+    /**
+     * Exact test: the box keeps the clearance from every wall and overlaps no keep-out zone
+     */
+    public boolean fits(int minX, int minY, int maxX, int maxY, int clearance) {
+        return insideOutline(minX, minY, maxX, maxY, clearance) && keepOutAt(minX, minY, maxX, maxY) < 0;
+    }
+
+    /**
+     * Exact test: the box grown by the clearance lies inside the outline (or the bounding rectangle)
+     * No outline edge may pass through the grown box's interior, and then its centre decides
+     */
+    public boolean insideOutline(int minX, int minY, int maxX, int maxY, int clearance) {
+        long x0 = (long) minX - clearance;
+        long y0 = (long) minY - clearance;
+        long x1 = (long) maxX + clearance;
+        long y1 = (long) maxY + clearance;
+        if (x0 < 0 || y0 < 0 || x1 > length || y1 > width) {
+            return false;
+        }
+        if (outlineX == null) {
+            return true;
+        }
+        for (int i = 0, j = outlineX.length - 1; i < outlineX.length; j = i++) {
+            if (crossesOpenBox(outlineX[j], outlineY[j], outlineX[i], outlineY[i], x0, y0, x1, y1)) {
+                return false;
+            }
+        }
+        return containsPoint((x0 + x1) / 2.0, (y0 + y1) / 2.0);
+    }
+
+    /**
+     * Index of the first keep-out zone the box overlaps (touching is allowed), or -1
+     */
+    public int keepOutAt(int minX, int minY, int maxX, int maxY) {
+        for (int i = 0; i < zoneMinX.length; i++) {
+            if (CollisionKernel.collides(minX, minY, maxX, maxY, 0, zoneMinX[i], zoneMinY[i], zoneMaxX[i], zoneMaxY[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Cells no piece may cover: the wall clearance band, everything outside the outline grown by the
+     * clearance, and the keep-out zones
+     * Built on first use per resolution and clearance; callers get their own copy to mark placements on
+     */
+    public OccupancyBitmap blockedCells(int resolution, int clearance) {
+        Raster raster = blocked;
+        if (raster == null || raster.resolution != resolution || raster.clearance != clearance) {
+            OccupancyBitmap cells = outlineX == null
+                    ? new OccupancyBitmap(length, width, resolution)
+                    : outsideCells(resolution).grown(cellsCovering(clearance, resolution));
+            cells.occupy(0, 0, length, clearance);
+            cells.occupy(0, width - clearance, length, width);
+            cells.occupy(0, 0, clearance, width);
+            cells.occupy(length - clearance, 0, length, width);
+            for (int i = 0; i < zoneMinX.length; i++) {
+                cells.occupy(zoneMinX[i], zoneMinY[i], zoneMaxX[i], zoneMaxY[i]);
+            }
+            raster = new Raster(resolution, clearance, cells, null);
+            blocked = raster;
+        }
+        return raster.cells.copy();
+    }
+
+    /**
+     * Rectangles inside the clearance line that no piece may overlap, as {minX, minY, maxX, maxY}
+     * The parts of the outline's surroundings within the clearance of a wall are decomposed into
+     * blocks on a 5 cm grid (rounded outward); keep-out zones are added as they are
+     * Empty for a rectangular room; the list is shared and must not be modified
+     */
+    public List<int[]> obstacles(int clearance) {
+        if (isRectangle()) {
+            return Collections.emptyList();
+        }
+        Raster raster = obstacles;
+        if (raster == null || raster.clearance != clearance) {
+            List<int[]> rectangles = new ArrayList<>();
+            if (outlineX != null) {
+                OccupancyBitmap cells = outsideCells(OBSTACLE_RESOLUTION)
+                        .grown(cellsCovering(clearance, OBSTACLE_RESOLUTION));
+                for (int[] block : cells.occupiedBlocks()) {
+                    // The band along the bounding rectangle is left to the caller's bin
+                    int minX = Math.max(clearance, cells.coordinate(block[0]));
+                    int minY = Math.max(clearance, cells.coordinate(block[1]));
+                    int maxX = Math.min(length - clearance, cells.coordinate(block[0] + block[2]));
+                    int maxY = Math.min(width - clearance, cells.coordinate(block[1] + block[3]));
+                    if (minX < maxX && minY < maxY) {
+                        rectangles.add(new int[] {minX, minY, maxX, maxY});
+                    }
+                }
+            }
+            for (int i = 0; i < zoneMinX.length; i++) {
+                rectangles.add(new int[] {zoneMinX[i], zoneMinY[i], zoneMaxX[i], zoneMaxY[i]});
+            }
+            raster = new Raster(OBSTACLE_RESOLUTION, clearance, null, Collections.unmodifiableList(rectangles));
+            obstacles = raster;
+        }
+        return raster.rectangles;
+    }
+
+    /**
+     * Rasterize the outline: a cell is marked unless it lies entirely inside
+     * A cell no edge passes through is either wholly inside or wholly outside, so its centre decides;
+     * cells an edge passes through are marked. Edges along cell borders pass through no cell
+     */
+    private OccupancyBitmap outsideCells(int resolution) {
+        OccupancyBitmap cells = new OccupancyBitmap(length, width, resolution);
+        int columns = cells.getColumns();
+        double[] crossings = new double[outlineX.length];
+        for (int r = 0; r < cells.getRows(); r++) {
+            int rowMinY = cells.coordinate(r);
+            int rowMaxY = rowMinY + resolution;
+
+            // Cells whose centre is outside, by even-odd crossings along the row's centre line
+            double centreY = rowMinY + resolution / 2.0;
+            int count = 0;
+            for (int i = 0, j = outlineX.length - 1; i < outlineX.length; j = i++) {
+                if ((outlineY[j] <= centreY) != (outlineY[i] <= centreY)) {
+                    crossings[count++] = outlineX[j] + (centreY - outlineY[j]) *
+                            (outlineX[i] - outlineX[j]) / (outlineY[i] - outlineY[j]);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            int column = 0;  // Cells before this one are classified
+            for (int k = 0; k + 1 < count; k += 2) {
+                int first = clamp((long) Math.ceil(crossings[k] / resolution - 0.5), columns);
+                int end = clamp((long) Math.floor(crossings[k + 1] / resolution - 0.5) + 1, columns);
+                if (first > column) {
+                    cells.occupyCells(column, r, first - column, 1);
+                }
+                column = Math.max(column, end);
+            }
+            if (column < columns) {
+                cells.occupyCells(column, r, columns - column, 1);
+            }
+
+            // Cells an edge passes through are only partly inside
+            for (int i = 0, j = outlineX.length - 1; i < outlineX.length; j = i++) {
+                int ax = outlineX[j];
+                int ay = outlineY[j];
+                int bx = outlineX[i];
+                int by = outlineY[i];
+                double spanMinX;
+                double spanMaxX;
+                if (ay == by) {
+                    if (ay <= rowMinY || ay >= rowMaxY) {
+                        continue;
+                    }
+                    spanMinX = Math.min(ax, bx);
+                    spanMaxX = Math.max(ax, bx);
+                } else {
+                    int low = Math.max(Math.min(ay, by), rowMinY);
+                    int high = Math.min(Math.max(ay, by), rowMaxY);
+                    if (low >= high) {
+                        continue;
+                    }
+                    double xLow = ax + (double) (low - ay) * (bx - ax) / (by - ay);
+                    double xHigh = ax + (double) (high - ay) * (bx - ax) / (by - ay);
+                    spanMinX = Math.min(xLow, xHigh);
+                    spanMaxX = Math.max(xLow, xHigh);
+                }
+                // Cells whose open interval (c, c + 1) · resolution meets [spanMinX, spanMaxX]
+                int first = clamp((long) Math.floor(spanMinX / resolution), columns);
+                int end = clamp((long) Math.ceil(spanMaxX / resolution), columns);
+                if (first < end) {
+                    cells.occupyCells(first, r, end - first, 1);
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Even-odd point-in-polygon test; only used for points off the outline
+     */
+    private boolean containsPoint(double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = outlineX.length - 1; i < outlineX.length; j = i++) {
+            if ((outlineY[j] <= y) != (outlineY[i] <= y) &&
+                x < outlineX[j] + (y - outlineY[j]) * (outlineX[i] - outlineX[j]) / (outlineY[i] - outlineY[j])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Whether the segment (ax, ay)-(bx, by) passes through the open box (x0, x1) × (y0, y1)
+     */
+    private static boolean crossesOpenBox(int ax, int ay, int bx, int by, long x0, long y0, long x1, long y1) {
+        // Parameter range in which the segment is strictly inside each slab, clipped to [0, 1]
+        double low = 0;
+        double high = 1;
+        if (ax == bx) {
+            if (ax <= x0 || ax >= x1) {
+                return false;
+            }
+        } else {
+            double t0 = (double) (x0 - ax) / (bx - ax);
+            double t1 = (double) (x1 - ax) / (bx - ax);
+            low = Math.max(low, Math.min(t0, t1));
+            high = Math.min(high, Math.max(t0, t1));
+        }
+        if (ay == by) {
+            if (ay <= y0 || ay >= y1) {
+                return false;
+            }
+        } else {
+            double t0 = (double) (y0 - ay) / (by - ay);
+            double t1 = (double) (y1 - ay) / (by - ay);
+            low = Math.max(low, Math.min(t0, t1));
+            high = Math.min(high, Math.max(t0, t1));
+        }
+        return low < high;
+    }
+
+    private void validateOutline(int[] xs, int[] ys) {
+        if (ys == null || xs.length != ys.length || xs.length < 3) {
+            throw new IllegalArgumentException("Room outline needs at least 3 points");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            if (xs[i] < 0 || ys[i] < 0 || xs[i] > length || ys[i] > width) {
+                throw new IllegalArgumentException("Room outline point " + (i + 1) +
+                        " lies outside the room's length and width");
+            }
+            int next = (i + 1) % xs.length;
+            if (xs[i] == xs[next] && ys[i] == ys[next]) {
+                throw new IllegalArgumentException("Room outline repeats point " + (i + 1));
+            }
+        }
+        // Edges that share no vertex must not meet; n is small, so all pairs are checked
+        int n = xs.length;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 2; j < n; j++) {
+                if (i == 0 && j == n - 1) {
+                    continue;
+                }
+                if (segmentsIntersect(xs[i], ys[i], xs[i + 1], ys[i + 1],
+                                      xs[j], ys[j], xs[(j + 1) % n], ys[(j + 1) % n])) {
+                    throw new IllegalArgumentException("Room outline must not cross itself");
+                }
+            }
+        }
+        if (area(xs, ys) == 0) {
+            throw new IllegalArgumentException("Room outline encloses no area");
+        }
+    }
+
+    /**
+     * Shoelace area of a polygon in mm²
+     */
+    private static long area(int[] xs, int[] ys) {
+        long twice = 0;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            twice += (long) xs[j] * ys[i] - (long) xs[i] * ys[j];
+        }
+        return Math.abs(twice) / 2;
+    }
+
+    private static boolean segmentsIntersect(int ax, int ay, int bx, int by, int cx, int cy, int dx, int dy) {
+        long d1 = orientation(cx, cy, dx, dy, ax, ay);
+        long d2 = orientation(cx, cy, dx, dy, bx, by);
+        long d3 = orientation(ax, ay, bx, by, cx, cy);
+        long d4 = orientation(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay)) || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by)) ||
+               (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy)) || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    private static long orientation(int ax, int ay, int bx, int by, int px, int py) {
+        return (long) (bx - ax) * (py - ay) - (long) (by - ay) * (px - ax);
+    }
+
+    private static boolean onSegment(int ax, int ay, int bx, int by, int px, int py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx) && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private static int cellsCovering(int length, int resolution) {
+        return -Math.floorDiv(-length, resolution);
+    }
+
+    private static int clamp(long cell, int columns) {
+        return (int) Math.max(0, Math.min(columns, cell));
+    }
+
+    /**
+     * Cached decomposition and the parameters it was built for
+     */
+    private static final class Raster {
+        final int resolution;
+        final int clearance;
+        final OccupancyBitmap cells;
+        final List<int[]> rectangles;
+
+        Raster(int resolution, int clearance, OccupancyBitmap cells, List<int[]> rectangles) {
+            this.resolution = resolution;
+            this.clearance = clearance;
+            this.cells = cells;
+            this.rectangles = rectangles;
+        }
+    }
+}
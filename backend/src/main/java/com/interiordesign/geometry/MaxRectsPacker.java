@@ -0,0 +1,164 @@
+package com.interiordesign.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MaxRects rectangle packer over a rectangular bin
+ * Keeps the list of maximal free rectangles and places each box using the
+ * Best Short Side Fit heuristic (the free rectangle leaving the smallest leftover edge)
+ * Deterministic: the same sequence of inserts always produces the same positions
+ * Works in whole millimetres, so boxes placed edge to edge share their edge exactly and a gap
+ * built into a box's size is kept to the millimetre
+ */
+public class MaxRectsPacker {
+
+    /** Packed corner returned when a box fits nowhere */
+    public static final long NO_FIT = Long.MIN_VALUE;
+
+    private final List<int[]> freeRects = new ArrayList<>();  // {x, y, width, height}
+
+    /**
+     * Create a packer for the bin [minX, maxX] × [minY, maxY]
+     */
+    public MaxRectsPacker(int minX, int minY, int maxX, int maxY) {
+        if (maxX > minX && maxY > minY) {
+            freeRects.add(new int[] {minX, minY, maxX - minX, maxY - minY});
+        }
+    }
+
+    /**
+     * Place a box of the given size
+     *
+     * @param width Box extent along x
+     * @param height Box extent along y
+     * @return Box's bottom-left corner packed as by {@link #packCorner},
+     *         or {@link #NO_FIT} if it does not fit anywhere
+     */
+    public long insert(int width, int height) {
+        int[] best = null;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+
+        for (int[] free : freeRects) {
+            if (free[2] >= width && free[3] >= height) {
+                int leftoverX = free[2] - width;
+                int leftoverY = free[3] - height;
+                int shortSide = Math.min(leftoverX, leftoverY);
+                int longSide = Math.max(leftoverX, leftoverY);
+                if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+                    best = free;
+                    bestShortSide = shortSide;
+                    bestLongSide = longSide;
+                }
+            }
+        }
+
+        if (best == null) {
+            return NO_FIT;
+        }
+
+        int[] placed = {best[0], best[1], width, height};
+        occupy(placed);
+        return packCorner(placed[0], placed[1]);
+    }
+
+    /**
+     * Pack a corner into one long, so inserts can return it without allocating
+     */
+    public static long packCorner(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * X of a packed corner
+     */
+    public static int cornerX(long corner) {
+        return (int) (corner >>> 32);
+    }
+
+    /**
+     * Y of a packed corner
+     */
+    public static int cornerY(long corner) {
+        return (int) corner;
+    }
+
+    /**
+     * Mark an arbitrary box as used, splitting every free rectangle it intersects
+     */
+    public void occupy(int x, int y, int width, int height) {
+        occupy(new int[] {x, y, width, height});
+    }
+
+    /**
+     * Number of maximal free rectangles currently tracked
+     */
+    public int getFreeRectangleCount() {
+        return freeRects.size();
+    }
+
+    private void occupy(int[] used) {
+        List<int[]> created = new ArrayList<>();
+        for (int i = freeRects.size() - 1; i >= 0; i--) {
+            int[] free = freeRects.get(i);
+            if (split(free, used, created)) {
+                freeRects.remove(i);
+            }
+        }
+        freeRects.addAll(created);
+        pruneContained();
+    }
+
+    /**
+     * Split a free rectangle around a used box into up to four maximal rectangles
+     * @return true if the free rectangle intersected the box and was replaced
+     */
+    private static boolean split(int[] free, int[] used, List<int[]> out) {
+        int freeRight = free[0] + free[2];
+        int freeTop = free[1] + free[3];
+        int usedRight = used[0] + used[2];
+        int usedTop = used[1] + used[3];
+
+        if (used[0] >= freeRight || usedRight <= free[0] || used[1] >= freeTop || usedTop <= free[1]) {
+            return false;
+        }
+
+        if (used[0] > free[0]) {  // Left part
+            out.add(new int[] {free[0], free[1], used[0] - free[0], free[3]});
+        }
+        if (usedRight < freeRight) {  // Right part
+            out.add(new int[] {usedRight, free[1], freeRight - usedRight, free[3]});
+        }
+        if (used[1] > free[1]) {  // Bottom part
+            out.add(new int[] {free[0], free[1], free[2], used[1] - free[1]});
+        }
+        if (usedTop < freeTop) {  // Top part
+            out.add(new int[] {free[0], usedTop, free[2], freeTop - usedTop});
+        }
+        return true;
+    }
+
+    /**
+     * Drop free rectangles fully contained in another one
+     */
+    private void pruneContained() {
+        for (int i = 0; i < freeRects.size(); i++) {
+            for (int j = i + 1; j < freeRects.size(); j++) {
+                if (contains(freeRects.get(j), freeRects.get(i))) {
+                    freeRects.remove(i--);
+                    break;
+                }
+                if (contains(freeRects.get(i), freeRects.get(j))) {
+                    freeRects.remove(j--);
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] outer, int[] inner) {
+        return inner[0] >= outer[0] && inner[1] >= outer[1] &&
+               inner[0] + inner[2] <= outer[0] + outer[2] &&
+               inner[1] + inner[3] <= outer[1] + outer[3];
+    }
+}
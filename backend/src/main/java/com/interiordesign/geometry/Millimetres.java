@@ -0,0 +1,46 @@
+package com.interiordesign.geometry;
+
+/**
+ * Fixed-point length unit of the geometry kernel
+ * Layout geometry is kept in whole millimetres as {@code int}, so edge-touching and gap tests
+ * are exact integer comparisons and the same input always gives the same answer. Meters appear
+ * only where lengths enter or leave the service: JSON bodies, catalog rows and AI prompts
+ * Lengths are limited to ±1,000 km, so a coordinate plus an extent (at most 2,000 km) stays within
+ * an int, which holds about 2,147 km
+ */
+public final class Millimetres {
+
+    public static final int PER_METER = 1000;
+
+    public static final int MAX_MILLIMETRES = 1_000_000_000;  // 1,000 km
+
+    private Millimetres() {
+    }
+
+    /**
+     * Convert meters to the nearest whole millimetre
+     *
+     * @throws IllegalArgumentException if the length is not finite or beyond ±1,000 km
+     */
+    public static int fromMeters(double meters) {
+        double scaled = Math.rint(meters * PER_METER);
+        if (!(Math.abs(scaled) <= MAX_MILLIMETRES)) {
+            throw new IllegalArgumentException("Length out of range: " + meters + " m");
+        }
+        return (int) scaled;
+    }
+
+    /**
+     * Convert millimetres to meters; exact for every value a JSON reader would print
+     */
+    public static double toMeters(int millimetres) {
+        return millimetres / (double) PER_METER;
+    }
+
+    /**
+     * Convert a squared length in mm² to m²
+     */
+    public static double toSquareMeters(long squareMillimetres) {
+        return squareMillimetres / ((double) PER_METER * PER_METER);
+    }
+}
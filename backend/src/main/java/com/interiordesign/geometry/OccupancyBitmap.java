@@ -0,0 +1,543 @@
+package com.interiordesign.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rasterized occupancy model of a floor area
+ * Each row of cells is stored as packed {@code long} words (bit set = occupied), so
+ * fit and collision tests are word-wise AND/OR operations whose cost depends on the
+ * footprint size only, not on how many items are already placed
+ *
+ * A rectangle [minX, maxX) × [minY, maxY) in whole millimetres covers every cell it touches.
+ * Marked areas and queried footprints are both rounded outward, so a footprint reported free is
+ * guaranteed not to intersect any marked area; borderline cases may be reported occupied.
+ * Cell arithmetic is integer division, so a coordinate on a cell border is never misplaced
+ */
+public class OccupancyBitmap {
+
+    /** Packed cell returned when a search finds nothing */
+    public static final long NO_CELL = -1L;
+
+    private final int resolution;
+    private final int columns;
+    private final int rows;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private final long[] rowScratch;  // Combined row used by findFirstFree
+
+    /**
+     * Create an empty bitmap covering [0, extentX] × [0, extentY]
+     *
+     * @param extentX Covered length along x in millimetres
+     * @param extentY Covered length along y in millimetres
+     * @param resolution Cell edge in millimetres (e.g. 10 for 1 cm)
+     */
+    public OccupancyBitmap(int extentX, int extentY, int resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.resolution = resolution;
+        this.columns = Math.max(1, cellCeil(extentX));
+        this.rows = Math.max(1, cellCeil(extentY));
+        this.wordsPerRow = (columns + 63) >>> 6;
+        this.bits = new long[wordsPerRow * rows];
+        this.rowScratch = new long[wordsPerRow];
+    }
+
+    /**
+     * Create an empty bitmap with the same grid as another one
+     */
+    private OccupancyBitmap(OccupancyBitmap grid) {
+        this.resolution = grid.resolution;
+        this.columns = grid.columns;
+        this.rows = grid.rows;
+        this.wordsPerRow = grid.wordsPerRow;
+        this.bits = new long[wordsPerRow * rows];
+        this.rowScratch = new long[wordsPerRow];
+    }
+
+    /**
+     * Independent copy of this bitmap, e.g. to mark placements on a shared template
+     */
+    public OccupancyBitmap copy() {
+        OccupancyBitmap copy = new OccupancyBitmap(this);
+        System.arraycopy(bits, 0, copy.bits, 0, bits.length);
+        return copy;
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * First cell index touched by a coordinate
+     */
+    public int cellFloor(int value) {
+        return Math.floorDiv(value, resolution);
+    }
+
+    /**
+     * One past the last cell index touched by a coordinate used as an exclusive end
+     */
+    public int cellCeil(int value) {
+        return -Math.floorDiv(-value, resolution);
+    }
+
+    /**
+     * Coordinate in millimetres of a cell's lower edge
+     */
+    public int coordinate(int cell) {
+        return cell * resolution;
+    }
+
+    /**
+     * Number of cells needed to cover a length
+     */
+    public int cellSpan(int length) {
+        return Math.max(1, cellCeil(length));
+    }
+
+    /**
+     * Mark a rectangle in millimetres as occupied (clipped to the bitmap)
+     */
+    public void occupy(int minX, int minY, int maxX, int maxY) {
+        int c0 = Math.max(0, cellFloor(minX));
+        int r0 = Math.max(0, cellFloor(minY));
+        int c1 = Math.min(columns, cellCeil(maxX));
+        int r1 = Math.min(rows, cellCeil(maxY));
+        if (c0 < c1 && r0 < r1) {
+            occupyCells(c0, r0, c1 - c0, r1 - r0);
+        }
+    }
+
+    /**
+     * Check whether a rectangle in millimetres is entirely inside the bitmap and unoccupied
+     */
+    public boolean isFree(int minX, int minY, int maxX, int maxY) {
+        int c0 = cellFloor(minX);
+        int r0 = cellFloor(minY);
+        return isFreeCells(c0, r0, cellCeil(maxX) - c0, cellCeil(maxY) - r0);
+    }
+
+    /**
+     * Mark a block of cells as occupied
+     */
+    public void occupyCells(int column, int row, int width, int height) {
+        int lastColumn = column + width - 1;
+        for (int r = row; r < row + height; r++) {
+            int base = r * wordsPerRow;
+            for (int w = column >>> 6; w <= lastColumn >>> 6; w++) {
+                bits[base + w] |= spanMask(w, column, lastColumn);
+            }
+        }
+    }
+
+    /**
+     * Check whether a block of cells is inside the bitmap and entirely free
+     */
+    public boolean isFreeCells(int column, int row, int width, int height) {
+        if (column < 0 || row < 0 || width <= 0 || height <= 0 ||
+            column + width > columns || row + height > rows) {
+            return false;
+        }
+        int lastColumn = column + width - 1;
+        int firstWord = column >>> 6;
+        int lastWord = lastColumn >>> 6;
+        for (int r = row; r < row + height; r++) {
+            int base = r * wordsPerRow;
+            for (int w = firstWord; w <= lastWord; w++) {
+                if ((bits[base + w] & spanMask(w, column, lastColumn)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the first free slot for a footprint, scanning rows bottom-up and columns left to right
+     *
+     * @param width Footprint width in cells
+     * @param height Footprint height in cells
+     * @return {column, row} of the slot's bottom-left cell, or null if no slot exists
+     */
+    public int[] findFirstFree(int width, int height) {
+        if (width <= 0 || height <= 0 || width > columns || height > rows) {
+            return null;
+        }
+        for (int row = 0; row + height <= rows; row++) {
+            // A column is usable only if it is free in every row the footprint spans
+            System.arraycopy(bits, row * wordsPerRow, rowScratch, 0, wordsPerRow);
+            for (int r = row + 1; r < row + height; r++) {
+                int base = r * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    rowScratch[w] |= bits[base + w];
+                }
+            }
+            int column = findFreeRun(rowScratch, width);
+            if (column >= 0) {
+                return new int[] {column, row};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the first run of at least {@code length} free cells in a combined row
+     * @return Start column of the run, or -1 if none
+     */
+    private int findFreeRun(long[] row, int length) {
+        int start = nextClear(row, 0, 0);
+        while (start >= 0 && start + length <= columns) {
+            int end = nextSet(row, 0, start);  // Exclusive end of the free run
+            if (end - start >= length) {
+                return start;
+            }
+            start = nextClear(row, 0, end);
+        }
+        return -1;
+    }
+
+    /**
+     * Build the map of blocked origins for a footprint of the given size
+     * Bit (c, r) of the result is set when a footprint whose bottom-left cell is (c, r) would overlap
+     * an occupied cell or leave the bitmap: the occupied area grown by the footprint (a Minkowski sum)
+     * plus the band along the top and right edges. Clear bits are the feasible origins
+     * Built with log-step shifted ORs, first across rows, then along each row
+     *
+     * @param width Footprint width in cells
+     * @param height Footprint height in cells
+     */
+    public OccupancyBitmap blockedOrigins(int width, int height) {
+        OccupancyBitmap result = new OccupancyBitmap(this);
+        long[] blocked = result.bits;
+        System.arraycopy(bits, 0, blocked, 0, bits.length);
+
+        // Row r becomes the OR of rows [r, r + height); rows past the top count as occupied
+        int covered = 1;
+        while (covered * 2 <= height) {
+            orRowAbove(blocked, covered);
+            covered *= 2;
+        }
+        if (covered < height) {
+            orRowAbove(blocked, height - covered);
+        }
+
+        // Column c becomes the OR of columns [c, c + width); columns past the right edge count as occupied
+        long[] row = result.rowScratch;
+        long[] shifted = new long[wordsPerRow];
+        long padding = (columns & 63) == 0 ? 0 : -1L << (columns & 63);
+        for (int r = 0; r < rows; r++) {
+            int base = r * wordsPerRow;
+            System.arraycopy(blocked, base, row, 0, wordsPerRow);
+            row[wordsPerRow - 1] |= padding;
+            covered = 1;
+            while (covered * 2 <= width) {
+                orShifted(row, covered, shifted);
+                covered *= 2;
+            }
+            if (covered < width) {
+                orShifted(row, width - covered, shifted);
+            }
+            System.arraycopy(row, 0, blocked, base, wordsPerRow);
+        }
+        return result;
+    }
+
+    /**
+     * Grow the occupied area by a number of cells on every side (a square dilation)
+     * Cells within that distance of the bitmap's edges count as occupied too, so a footprint that is
+     * free in the result keeps {@code cells} cells from every occupied cell and from the border
+     */
+    public OccupancyBitmap grown(int cells) {
+        if (cells <= 0) {
+            return copy();
+        }
+        // Origin (c, r) of a (2k+1)-cell footprint covers cells [c, c + 2k]; shift it to its centre
+        OccupancyBitmap origins = blockedOrigins(2 * cells + 1, 2 * cells + 1);
+        OccupancyBitmap result = new OccupancyBitmap(this);
+        int wordShift = cells >>> 6;
+        int bitShift = cells & 63;
+        for (int r = 0; r < rows; r++) {
+            int base = r * wordsPerRow;
+            int source = (r - cells) * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                if (r < cells) {
+                    result.bits[base + w] = -1L;
+                    continue;
+                }
+                // Shift towards higher columns; columns vacated at the left edge are ones
+                long low = w - wordShift >= 0 ? origins.bits[source + w - wordShift] : -1L;
+                long lower = w - wordShift - 1 >= 0 ? origins.bits[source + w - wordShift - 1] : -1L;
+                result.bits[base + w] = bitShift == 0 ? low : (low << bitShift) | (lower >>> (64 - bitShift));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decompose the occupied cells into disjoint blocks
+     * Runs of occupied cells are collected row by row and a run that spans exactly the columns of a
+     * block in the row below extends that block upwards, so straight-edged areas give few blocks
+     *
+     * @return Blocks as {column, row, width, height} in cells
+     */
+    public List<int[]> occupiedBlocks() {
+        List<int[]> blocks = new ArrayList<>();
+        List<int[]> open = new ArrayList<>();  // Blocks that reach the previous row, by start column
+        List<int[]> next = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            int base = r * wordsPerRow;
+            int k = 0;
+            int start = nextSet(bits, base, 0);
+            while (start < columns) {
+                int end = nextClear(bits, base, start);
+                end = end < 0 ? columns : end;
+                // Open blocks left of this run cannot continue
+                while (k < open.size() && open.get(k)[0] < start) {
+                    k++;
+                }
+                int[] block;
+                if (k < open.size() && open.get(k)[0] == start && open.get(k)[2] == end - start) {
+                    block = open.get(k++);
+                    block[3]++;
+                } else {
+                    block = new int[] {start, r, end - start, 1};
+                    blocks.add(block);
+                }
+                next.add(block);
+                start = end < columns ? nextSet(bits, base, end) : columns;
+            }
+            List<int[]> swap = open;
+            open = next;
+            next = swap;
+            next.clear();
+        }
+        return blocks;
+    }
+
+    /**
+     * Find the clear cell closest to the given cell (Euclidean distance in cells)
+     * Ties go to the nearest row, then the lower row, then the lower column
+     *
+     * @return Closest clear cell packed as by {@link #packCell}, or {@link #NO_CELL} if every cell is occupied
+     */
+    public long findNearestFree(int column, int row) {
+        column = Math.max(0, Math.min(columns - 1, column));
+        row = Math.max(0, Math.min(rows - 1, row));
+        long bestDistanceSq = Long.MAX_VALUE;
+        int bestColumn = -1;
+        int bestRow = -1;
+
+        for (int offset = 0; offset < rows && (long) offset * offset < bestDistanceSq; offset++) {
+            for (int side = 0; side < (offset == 0 ? 1 : 2); side++) {
+                int r = side == 0 ? row - offset : row + offset;
+                if (r < 0 || r >= rows) {
+                    continue;
+                }
+                int base = r * wordsPerRow;
+                int right = nextClear(bits, base, column);
+                int left = previousClear(bits, base, column);
+                int c = left < 0 ? right : right < 0 || column - left <= right - column ? left : right;
+                if (c < 0) {
+                    continue;
+                }
+                long distanceSq = (long) (c - column) * (c - column) + (long) offset * offset;
+                if (distanceSq < bestDistanceSq) {
+                    bestDistanceSq = distanceSq;
+                    bestColumn = c;
+                    bestRow = r;
+                }
+            }
+        }
+        return bestColumn < 0 ? NO_CELL : packCell(bestColumn, bestRow);
+    }
+
+    /**
+     * Pack a cell into one long, so searches can return it without allocating
+     */
+    public static long packCell(int column, int row) {
+        return ((long) column << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Column of a packed cell
+     */
+    public static int cellColumn(long cell) {
+        return (int) (cell >>> 32);
+    }
+
+    /**
+     * Row of a packed cell
+     */
+    public static int cellRow(long cell) {
+        return (int) cell;
+    }
+
+    /**
+     * Find the origin closest to the given cell where a footprint fits, testing a lattice of
+     * square rings around it within a bounded number of footprint tests
+     * The scan stops once no unexplored ring can beat the best hit, so with a one-cell step the
+     * answer is as close as {@link #findNearestFree} over {@link #blockedOrigins} would give;
+     * when the hit is near, that is far cheaper than building the origins bitmap
+     *
+     * @param width Footprint width in cells
+     * @param height Footprint height in cells
+     * @param step Lattice spacing in cells
+     * @param maxTests Footprint tests allowed
+     * @return Nearest fitting lattice origin packed as by {@link #packCell}, or {@link #NO_CELL}
+     *         if the budget ran out first or no lattice origin fits
+     */
+    public long findNearestFit(int column, int row, int width, int height, int step, int maxTests) {
+        column = Math.max(0, Math.min(columns - 1, column));
+        row = Math.max(0, Math.min(rows - 1, row));
+        step = Math.max(1, step);
+        long bestDistanceSq = Long.MAX_VALUE;
+        long best = NO_CELL;
+        int tests = 0;
+        int lastRing = Math.max(columns, rows) / step + 1;
+
+        for (int ring = 0; ring <= lastRing; ring++) {
+            long ringDistance = (long) ring * step;
+            if (ringDistance * ringDistance >= bestDistanceSq) {
+                break;  // Every point on this ring and beyond is at least as far as the best hit
+            }
+            for (int k = -ring; k <= ring; k++) {
+                for (int side = 0; side < (ring == 0 ? 1 : 4); side++) {
+                    if (side >= 2 && (k == -ring || k == ring)) {
+                        continue;  // Corners belong to the bottom and top edges
+                    }
+                    int i = side < 2 ? k : side == 2 ? -ring : ring;
+                    int j = side == 0 ? -ring : side == 1 ? ring : k;
+                    long di = (long) i * step;
+                    long dj = (long) j * step;
+                    long distanceSq = di * di + dj * dj;
+                    int c = column + i * step;
+                    int r = row + j * step;
+                    if (distanceSq >= bestDistanceSq ||
+                        c < 0 || r < 0 || c + width > columns || r + height > rows) {
+                        continue;
+                    }
+                    if (++tests > maxTests) {
+                        return NO_CELL;
+                    }
+                    if (isFreeCells(c, r, width, height)) {
+                        bestDistanceSq = distanceSq;
+                        best = packCell(c, r);
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * OR each row with the row {@code offset} above it, in place; rows past the top are all ones
+     */
+    private void orRowAbove(long[] data, int offset) {
+        for (int r = 0; r < rows; r++) {
+            int base = r * wordsPerRow;
+            int source = (r + offset) * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                data[base + w] |= r + offset < rows ? data[source + w] : -1L;
+            }
+        }
+    }
+
+    /**
+     * OR a row with itself shifted {@code shift} columns towards column 0; vacated columns are ones
+     */
+    private void orShifted(long[] row, int shift, long[] scratch) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long low = w + wordShift < wordsPerRow ? row[w + wordShift] : -1L;
+            long high = w + wordShift + 1 < wordsPerRow ? row[w + wordShift + 1] : -1L;
+            scratch[w] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+        }
+        for (int w = 0; w < wordsPerRow; w++) {
+            row[w] |= scratch[w];
+        }
+    }
+
+    /**
+     * First clear column at or after {@code from} in the row starting at {@code base}, or -1
+     */
+    private int nextClear(long[] data, int base, int from) {
+        if (from >= columns) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = ~data[base + w] & (-1L << (from & 63));
+        while (true) {
+            if (word != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                return index < columns ? index : -1;
+            }
+            if (++w == wordsPerRow) {
+                return -1;
+            }
+            word = ~data[base + w];
+        }
+    }
+
+    /**
+     * Last clear column at or before {@code from} in the row starting at {@code base}, or -1
+     */
+    private int previousClear(long[] data, int base, int from) {
+        int w = from >>> 6;
+        long word = ~data[base + w] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--w < 0) {
+                return -1;
+            }
+            word = ~data[base + w];
+        }
+    }
+
+    /**
+     * First set column at or after {@code from} in the row starting at {@code base}, or columns
+     */
+    private int nextSet(long[] data, int base, int from) {
+        if (from >= columns) {
+            return columns;
+        }
+        int w = from >>> 6;
+        long word = data[base + w] & (-1L << (from & 63));
+        while (true) {
+            if (word != 0) {
+                return Math.min(columns, (w << 6) + Long.numberOfTrailingZeros(word));
+            }
+            if (++w == wordsPerRow) {
+                return columns;
+            }
+            word = data[base + w];
+        }
+    }
+
+    /**
+     * Bits of word {@code w} that fall within columns [first, last]
+     */
+    private static long spanMask(int w, int first, int last) {
+        long mask = -1L;
+        if (w == first >>> 6) {
+            mask &= -1L << (first & 63);
+        }
+        if (w == last >>> 6) {
+            mask &= -1L >>> (63 - (last & 63));
+        }
+        return mask;
+    }
+}
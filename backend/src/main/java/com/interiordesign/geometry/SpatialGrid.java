@@ -0,0 +1,156 @@
+package com.interiordesign.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Uniform-grid spatial index over axis-aligned rectangles in whole millimetres
+ * Each item is bucketed into every cell its bounding box touches, so a query
+ * only visits items registered in the cells it covers instead of the whole layout
+ * Not thread-safe; build one index per layout pass
+ *
+ * @param <T> Type of indexed item
+ */
+public class SpatialGrid<T> {
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[][] cells;        // Item ids per cell
+    private final int[] cellCounts;     // Used slots per cell
+    private final List<T> items = new ArrayList<>();
+    private int[] bounds = new int[64];  // minX, minY, maxX, maxY of item id at [4 * id]
+    private int[] visitStamps = new int[16];  // Last query that visited each item id, for de-duplication
+    private int currentStamp;
+
+    /**
+     * Create an index covering [0, extentX] × [0, extentY]
+     * Items outside the extent are clamped into the border cells
+     *
+     * @param extentX Covered length along the x axis
+     * @param extentY Covered length along the y axis
+     * @param cellSize Cell edge length; roughly the size of a typical item works best
+     */
+    public SpatialGrid(int extentX, int extentY, int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, -Math.floorDiv(-extentX, cellSize));
+        this.rows = Math.max(1, -Math.floorDiv(-extentY, cellSize));
+        this.cells = new int[columns * rows][];
+        this.cellCounts = new int[columns * rows];
+    }
+
+    /**
+     * Add an item with the given bounding box
+     */
+    public void insert(T item, int minX, int minY, int maxX, int maxY) {
+        int id = items.size();
+        items.add(item);
+        if (id >= visitStamps.length) {
+            visitStamps = Arrays.copyOf(visitStamps, visitStamps.length * 2);
+            bounds = Arrays.copyOf(bounds, visitStamps.length * 4);
+        }
+        bounds[4 * id] = minX;
+        bounds[4 * id + 1] = minY;
+        bounds[4 * id + 2] = maxX;
+        bounds[4 * id + 3] = maxY;
+
+        int col0 = column(minX);
+        int col1 = column(maxX);
+        int row0 = row(minY);
+        int row1 = row(maxY);
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                addToCell(r * columns + c, id);
+            }
+        }
+    }
+
+    /**
+     * Find the first item whose bounding box overlaps the query box and satisfies the filter
+     * Boxes that only touch along an edge do not overlap
+     *
+     * @return Matching item, or null if none
+     */
+    public T findFirst(int minX, int minY, int maxX, int maxY, Predicate<? super T> filter) {
+        int stamp = nextStamp();
+        int col0 = column(minX);
+        int col1 = column(maxX);
+        int row0 = row(minY);
+        int row1 = row(maxY);
+        for (int r = row0; r <= row1; r++) {
+            for (int c = col0; c <= col1; c++) {
+                int cell = r * columns + c;
+                int[] ids = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    int id = ids[i];
+                    if (visitStamps[id] == stamp) {
+                        continue;
+                    }
+                    visitStamps[id] = stamp;
+                    int b = 4 * id;
+                    if (bounds[b + 2] <= minX || bounds[b] >= maxX || bounds[b + 3] <= minY || bounds[b + 1] >= maxY) {
+                        continue;
+                    }
+                    T item = items.get(id);
+                    if (filter.test(item)) {
+                        return item;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collect every item whose bounding box overlaps the query box
+     */
+    public List<T> query(int minX, int minY, int maxX, int maxY) {
+        List<T> result = new ArrayList<>();
+        findFirst(minX, minY, maxX, maxY, item -> {
+            result.add(item);
+            return false;
+        });
+        return result;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private void addToCell(int cell, int id) {
+        int[] ids = cells[cell];
+        if (ids == null) {
+            ids = new int[4];
+            cells[cell] = ids;
+        } else if (cellCounts[cell] == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            cells[cell] = ids;
+        }
+        ids[cellCounts[cell]++] = id;
+    }
+
+    private int nextStamp() {
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamps, 0);
+            currentStamp = 1;
+        }
+        return currentStamp;
+    }
+
+    private int column(int x) {
+        return clamp(Math.floorDiv(x, cellSize), columns);
+    }
+
+    private int row(int y) {
+        return clamp(Math.floorDiv(y, cellSize), rows);
+    }
+
+    private static int clamp(int index, int size) {
+        return index < 0 ? 0 : Math.min(index, size - 1);
+    }
+}
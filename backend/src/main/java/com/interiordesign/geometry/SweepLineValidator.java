@@ -0,0 +1,188 @@
+package com.interiordesign.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Whole-layout checker for axis-aligned boxes in whole millimetres
+ * Reports every box outside an allowed region and every pair of boxes closer than their
+ * combined margins, in one sweep along x: boxes enter the active set at their left edge
+ * (widened by the margin) and leave it after their right edge; the active set is ordered
+ * by bottom edge so each new box only visits neighbours whose y interval can reach it
+ * Costs O(n log n + k) for n boxes and k reported pairs when box heights are comparable
+ * Not thread-safe; build one validator per layout
+ */
+public class SweepLineValidator {
+
+    private final int boundMinX;
+    private final int boundMinY;
+    private final int boundMaxX;
+    private final int boundMaxY;
+
+    private int[] minX = new int[16];
+    private int[] minY = new int[16];
+    private int[] maxX = new int[16];
+    private int[] maxY = new int[16];
+    private int[] margin = new int[16];
+    private int size;
+
+    /**
+     * Create a validator whose boxes must lie inside [minX, maxX] × [minY, maxY]
+     */
+    public SweepLineValidator(int minX, int minY, int maxX, int maxY) {
+        this.boundMinX = minX;
+        this.boundMinY = minY;
+        this.boundMaxX = maxX;
+        this.boundMaxY = maxY;
+    }
+
+    /**
+     * Add a box
+     *
+     * @param margin Clearance this box requires around it; two boxes collide when they are
+     *               closer than the sum of their margins on both axes
+     * @return Id of the box, assigned in insertion order from 0
+     */
+    public int add(int minX, int minY, int maxX, int maxY, int margin) {
+        if (size == this.minX.length) {
+            int capacity = size * 2;
+            this.minX = Arrays.copyOf(this.minX, capacity);
+            this.minY = Arrays.copyOf(this.minY, capacity);
+            this.maxX = Arrays.copyOf(this.maxX, capacity);
+            this.maxY = Arrays.copyOf(this.maxY, capacity);
+            this.margin = Arrays.copyOf(this.margin, capacity);
+        }
+        this.minX[size] = minX;
+        this.minY[size] = minY;
+        this.maxX[size] = maxX;
+        this.maxY[size] = maxY;
+        this.margin[size] = margin;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check all boxes added so far
+     */
+    public Result validate() {
+        List<Integer> outOfBounds = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (minX[i] < boundMinX || minY[i] < boundMinY || maxX[i] > boundMaxX || maxY[i] > boundMaxY) {
+                outOfBounds.add(i);
+            }
+        }
+        return new Result(outOfBounds, findCollisions());
+    }
+
+    /**
+     * Two boxes collide when they are closer than the sum of their margins on both axes
+     * Evaluated with the later box widened, so the answer does not depend on argument order
+     */
+    public boolean collides(int a, int b) {
+        if (a < b) {
+            return collides(b, a);
+        }
+        int required = margin[a] + margin[b];
+        return minX[a] - required < maxX[b] && maxX[a] + required > minX[b] &&
+               minY[a] - required < maxY[b] && maxY[a] + required > minY[b];
+    }
+
+    private List<int[]> findCollisions() {
+        List<int[]> collisions = new ArrayList<>();
+        if (size < 2) {
+            return collisions;
+        }
+
+        // Boxes widened by their own margin; a colliding pair always overlaps in this space
+        Integer[] order = new Integer[size];
+        int tallest = 0;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            tallest = Math.max(tallest, maxY[i] - minY[i] + 2 * margin[i]);
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(minX[a] - margin[a], minX[b] - margin[b]));
+
+        // Active boxes ordered by widened bottom edge; ids size and size + 1 are range probes
+        int[] bottom = Arrays.copyOf(minY, size + 2);
+        for (int i = 0; i < size; i++) {
+            bottom[i] -= margin[i];
+        }
+        int lowProbe = size;
+        int highProbe = size + 1;
+        NavigableSet<Integer> active = new TreeSet<>((a, b) -> {
+            int c = Integer.compare(bottom[a], bottom[b]);
+            return c != 0 ? c : Integer.compare(tieRank(a, lowProbe, highProbe), tieRank(b, lowProbe, highProbe));
+        });
+        PriorityQueue<Integer> byRightEdge = new PriorityQueue<>(
+                (a, b) -> Integer.compare(maxX[a] + margin[a], maxX[b] + margin[b]));
+
+        for (Integer id : order) {
+            int i = id;
+            int left = minX[i] - margin[i];
+            while (!byRightEdge.isEmpty() && maxX[byRightEdge.peek()] + margin[byRightEdge.peek()] < left) {
+                active.remove(byRightEdge.poll());
+            }
+
+            // Any active box reaching this one starts at most one box height below it
+            bottom[lowProbe] = bottom[i] - tallest;
+            bottom[highProbe] = maxY[i] + margin[i];
+            for (Integer other : active.subSet(lowProbe, true, highProbe, true)) {
+                if (collides(i, other)) {
+                    collisions.add(other < i ? new int[] {other, i} : new int[] {i, other});
+                }
+            }
+
+            active.add(i);
+            byRightEdge.add(i);
+        }
+
+        collisions.sort((a, b) -> a[1] != b[1] ? Integer.compare(a[1], b[1]) : Integer.compare(a[0], b[0]));
+        return collisions;
+    }
+
+    private static int tieRank(int id, int lowProbe, int highProbe) {
+        if (id == lowProbe) {
+            return -1;
+        }
+        return id == highProbe ? Integer.MAX_VALUE : id;
+    }
+
+    /**
+     * Outcome of a validation pass
+     */
+    public static final class Result {
+        private final List<Integer> outOfBounds;
+        private final List<int[]> collisions;
+
+        private Result(List<Integer> outOfBounds, List<int[]> collisions) {
+            this.outOfBounds = Collections.unmodifiableList(outOfBounds);
+            this.collisions = Collections.unmodifiableList(collisions);
+        }
+
+        /**
+         * Ids of boxes not inside the allowed region, ascending
+         */
+        public List<Integer> getOutOfBounds() {
+            return outOfBounds;
+        }
+
+        /**
+         * Colliding pairs as {lower id, higher id}, ordered by higher id then lower id
+         */
+        public List<int[]> getCollisions() {
+            return collisions;
+        }
+
+        public boolean isValid() {
+            return outOfBounds.isEmpty() && collisions.isEmpty();
+        }
+    }
+}
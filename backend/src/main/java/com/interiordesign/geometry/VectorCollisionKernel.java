@@ -0,0 +1,44 @@
+package com.interiordesign.geometry;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation behind {@link CollisionKernel}
+ * Only loaded when the jdk.incubator.vector module is present; the remainder that does not
+ * fill a whole vector runs through the scalar loop
+ */
+final class VectorCollisionKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorCollisionKernel() {
+    }
+
+    static int laneCount() {
+        return SPECIES.length();
+    }
+
+    static int firstCollision(int x0, int y0, int x1, int y1, int margin,
+                              int[] minX, int[] minY, int[] maxX, int[] maxY,
+                              int[] margins, int from, int to) {
+        int j = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; j < upper; j += SPECIES.length()) {
+            IntVector gap = IntVector.fromArray(SPECIES, margins, j).add(margin);
+            IntVector negGap = gap.neg();
+            // Same comparisons as CollisionKernel.collides, one lane per box
+            VectorMask<Integer> hit =
+                    negGap.add(x0).compare(VectorOperators.LT, IntVector.fromArray(SPECIES, maxX, j))
+                    .and(gap.add(x1).compare(VectorOperators.GT, IntVector.fromArray(SPECIES, minX, j)))
+                    .and(negGap.add(y0).compare(VectorOperators.LT, IntVector.fromArray(SPECIES, maxY, j)))
+                    .and(gap.add(y1).compare(VectorOperators.GT, IntVector.fromArray(SPECIES, minY, j)));
+            if (hit.anyTrue()) {
+                return j + hit.firstTrue();
+            }
+        }
+        return CollisionKernel.scalarFirstCollision(x0, y0, x1, y1, margin, minX, minY, maxX, maxY, margins, j, to);
+    }
+}
@@ -1,19 +1,26 @@
 package com.interiordesign.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.interiordesign.geometry.Millimetres;
+
+import java.util.Objects;
 
 /**
  * Furniture entity representing a piece of furniture from database
  * Contains dimensions, price, and category information
+ * Dimensions are held in whole millimetres for the geometry kernel and read and written in meters
+ * Rows held by a catalog snapshot are made read-only, as every request shares them
  */
 public class Furniture {
     
     private Long id;
     private String name;
-    private double width;  // Width in meters
-    private double depth;  // Depth in meters (called 'length' in frontend)
+    private int width;     // Width in millimetres
+    private int depth;     // Depth in millimetres (called 'length' in frontend)
     private int price;     // Price in dollars
     private String category;
+    private boolean readOnly;  // Set once a catalog snapshot holds this row
 
     // Constructors
     public Furniture() {
@@ -22,8 +29,8 @@ public class Furniture {
     public Furniture(Long id, String name, double width, double depth, int price, String category) {
         this.id = id;
         this.name = name;
-        this.width = width;
-        this.depth = depth;
+        this.width = Millimetres.fromMeters(width);
+        this.depth = Millimetres.fromMeters(depth);
         this.price = price;
         this.category = category;
     }
@@ -34,6 +41,7 @@ public class Furniture {
     }
 
     public void setId(Long id) {
+        checkWritable();
         this.id = id;
     }
 
@@ -42,34 +50,53 @@ public class Furniture {
     }
 
     public void setName(String name) {
+        checkWritable();
         this.name = name;
     }
 
     public double getWidth() {
-        return width;
+        return Millimetres.toMeters(width);
     }
 
     public void setWidth(double width) {
-        this.width = width;
+        checkWritable();
+        this.width = Millimetres.fromMeters(width);
     }
 
     public double getDepth() {
-        return depth;
+        return Millimetres.toMeters(depth);
     }
 
     public void setDepth(double depth) {
-        this.depth = depth;
+        checkWritable();
+        this.depth = Millimetres.fromMeters(depth);
     }
     
     // Alias for frontend compatibility (depth = length)
     @JsonProperty("length")
     public double getLength() {
-        return depth;
+        return getDepth();
     }
     
     @JsonProperty("length")
     public void setLength(double length) {
-        this.depth = length;
+        setDepth(length);
+    }
+    
+    /**
+     * Width in millimetres
+     */
+    @JsonIgnore
+    public int getWidthMm() {
+        return width;
+    }
+    
+    /**
+     * Depth in millimetres
+     */
+    @JsonIgnore
+    public int getDepthMm() {
+        return depth;
     }
 
     public int getPrice() {
@@ -77,6 +104,7 @@ public class Furniture {
     }
 
     public void setPrice(int price) {
+        checkWritable();
         this.price = price;
     }
 
@@ -85,16 +113,60 @@ public class Furniture {
     }
 
     public void setCategory(String category) {
+        checkWritable();
         this.category = category;
     }
 
+    /**
+     * Make this row read-only; setters throw afterwards
+     */
+    public void makeReadOnly() {
+        readOnly = true;
+    }
+    
+    @JsonIgnore
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Catalog furniture '" + name + "' is read-only");
+        }
+    }
+    
+    /**
+     * Same catalog row: equal id, name, dimensions, price and category
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Furniture other = (Furniture) o;
+        return width == other.width
+                && depth == other.depth
+                && price == other.price
+                && Objects.equals(id, other.id)
+                && Objects.equals(name, other.name)
+                && Objects.equals(category, other.category);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, width, depth, price, category);
+    }
+
     @Override
     public String toString() {
         return "Furniture{" +
                 "id=" + id +
                 ", name='" + name + '\'' +
-                ", width=" + width +
-                ", depth=" + depth +
+                ", width=" + getWidth() +
+                ", depth=" + getDepth() +
                 ", price=" + price +
                 ", category='" + category + '\'' +
                 '}';
@@ -0,0 +1,164 @@
+package com.interiordesign.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.interiordesign.geometry.Millimetres;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Furniture set placed as one block, e.g. sofa + coffee table + TV stand
+ * The members keep a fixed arrangement inside the set's bounding box, so solvers and the AI
+ * place the set like a single piece and it is expanded into its members afterwards
+ * Width, depth and price describe the whole block; the category is that of the first member
+ */
+public class FurnitureGroup extends Furniture {
+
+    private final List<FurniturePosition> members;  // Offsets relative to the block's bottom-left corner
+
+    /**
+     * Build a set from its arranged members
+     * The arrangement is shifted so the bounding box starts at (0, 0)
+     *
+     * @param members Member pieces at their positions inside the set, anchor piece first
+     */
+    public FurnitureGroup(Long id, String name, List<FurniturePosition> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Furniture set '" + name + "' has no members");
+        }
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        int price = 0;
+        for (FurniturePosition member : members) {
+            minX = Math.min(minX, member.getXMm());
+            minY = Math.min(minY, member.getYMm());
+            maxX = Math.max(maxX, member.getMaxXMm());
+            maxY = Math.max(maxY, member.getMaxYMm());
+            price += member.getFurniture().getPrice();
+        }
+
+        List<FurniturePosition> arranged = new ArrayList<>(members.size());
+        for (FurniturePosition member : members) {
+            arranged.add(FurniturePosition.ofMillimetres(member.getFurniture(),
+                    member.getXMm() - minX, member.getYMm() - minY, member.getRotation()));
+        }
+        this.members = Collections.unmodifiableList(arranged);
+
+        setId(id);
+        setName(name);
+        setWidth(Millimetres.toMeters(maxX - minX));
+        setDepth(Millimetres.toMeters(maxY - minY));
+        setPrice(price);
+        setCategory(members.get(0).getFurniture().getCategory());
+    }
+
+    /**
+     * Member pieces at their offsets inside the unrotated block
+     */
+    @JsonIgnore
+    public List<FurniturePosition> getMembers() {
+        return members;
+    }
+
+    /**
+     * Categories of all members, anchor first, without duplicates
+     */
+    @JsonIgnore
+    public List<String> getMemberCategories() {
+        LinkedHashSet<String> categories = new LinkedHashSet<>();
+        for (FurniturePosition member : members) {
+            categories.add(member.getFurniture().getCategory());
+        }
+        return new ArrayList<>(categories);
+    }
+
+    /**
+     * Expand a placed block into member positions in room coordinates
+     * Members are turned with the block about its bounding box, so the block's footprint is kept
+     *
+     * @param block Position of this set
+     * @return Member placements in member order
+     */
+    public List<FurniturePosition> expand(FurniturePosition block) {
+        int width = getWidthMm();
+        int depth = getDepthMm();
+        int turn = block.getRotation();
+
+        List<FurniturePosition> placed = new ArrayList<>(members.size());
+        for (FurniturePosition member : members) {
+            int u = member.getXMm();
+            int v = member.getYMm();
+            int a = member.getFootprintWidthMm();
+            int b = member.getFootprintDepthMm();
+
+            // Bottom-left corner of the member after turning the block counter-clockwise
+            int x;
+            int y;
+            switch (turn) {
+                case 90:
+                    x = depth - v - b;
+                    y = u;
+                    break;
+                case 180:
+                    x = width - u - a;
+                    y = depth - v - b;
+                    break;
+                case 270:
+                    x = v;
+                    y = width - u - a;
+                    break;
+                default:
+                    x = u;
+                    y = v;
+            }
+            placed.add(FurniturePosition.ofMillimetres(member.getFurniture(), block.getXMm() + x, block.getYMm() + y,
+                    member.getRotation() + turn));
+        }
+        return placed;
+    }
+
+    /**
+     * Same set: equal block attributes and the same members at the same offsets and rotations
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) {
+            return false;
+        }
+        List<FurniturePosition> others = ((FurnitureGroup) o).members;
+        if (members.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < members.size(); i++) {
+            FurniturePosition member = members.get(i);
+            FurniturePosition other = others.get(i);
+            if (member.getXMm() != other.getXMm() || member.getYMm() != other.getYMm()
+                    || member.getRotation() != other.getRotation()
+                    || !member.getFurniture().equals(other.getFurniture())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + members.size();
+    }
+
+    @Override
+    public String toString() {
+        return "FurnitureGroup{" +
+                "id=" + getId() +
+                ", name='" + getName() + '\'' +
+                ", width=" + getWidth() +
+                ", depth=" + getDepth() +
+                ", price=" + getPrice() +
+                ", members=" + members.size() +
+                '}';
+    }
+}
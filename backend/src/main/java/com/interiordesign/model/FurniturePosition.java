@@ -1,14 +1,20 @@
 package com.interiordesign.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.interiordesign.geometry.Millimetres;
+
 /**
  * Represents the position of a furniture piece in the room layout
- * Contains furniture reference and x, y coordinates
+ * Contains furniture reference, x, y coordinates and rotation
+ * Coordinates are held in whole millimetres, so overlap and fit tests are exact; the meter
+ * accessors convert at the JSON boundary
  */
 public class FurniturePosition {
     
     private Furniture furniture;
-    private double x;  // X coordinate in meters from room origin (bottom-left)
-    private double y;  // Y coordinate in meters from room origin (bottom-left)
+    private int x;  // X coordinate in millimetres from room origin (bottom-left)
+    private int y;  // Y coordinate in millimetres from room origin (bottom-left)
+    private int rotation;  // Degrees counter-clockwise: 0, 90, 180 or 270
 
     // Constructors
     public FurniturePosition() {
@@ -16,8 +22,27 @@ public class FurniturePosition {
 
     public FurniturePosition(Furniture furniture, double x, double y) {
         this.furniture = furniture;
-        this.x = x;
-        this.y = y;
+        this.x = Millimetres.fromMeters(x);
+        this.y = Millimetres.fromMeters(y);
+    }
+
+    public FurniturePosition(Furniture furniture, double x, double y, double rotation) {
+        this.furniture = furniture;
+        this.x = Millimetres.fromMeters(x);
+        this.y = Millimetres.fromMeters(y);
+        this.rotation = normalizeRotation(rotation);
+    }
+    
+    /**
+     * Create a position from millimetre coordinates
+     */
+    public static FurniturePosition ofMillimetres(Furniture furniture, int x, int y, int rotation) {
+        FurniturePosition position = new FurniturePosition();
+        position.furniture = furniture;
+        position.x = x;
+        position.y = y;
+        position.rotation = normalizeRotation(rotation);
+        return position;
     }
 
     // Getters and Setters
@@ -30,51 +55,149 @@ public class FurniturePosition {
     }
 
     public double getX() {
-        return x;
+        return Millimetres.toMeters(x);
     }
 
     public void setX(double x) {
-        this.x = x;
+        this.x = Millimetres.fromMeters(x);
     }
 
     public double getY() {
-        return y;
+        return Millimetres.toMeters(y);
     }
 
     public void setY(double y) {
+        this.y = Millimetres.fromMeters(y);
+    }
+    
+    /**
+     * X of the bottom-left corner in millimetres
+     */
+    @JsonIgnore
+    public int getXMm() {
+        return x;
+    }
+    
+    @JsonIgnore
+    public void setXMm(int x) {
+        this.x = x;
+    }
+    
+    /**
+     * Y of the bottom-left corner in millimetres
+     */
+    @JsonIgnore
+    public int getYMm() {
+        return y;
+    }
+    
+    @JsonIgnore
+    public void setYMm(int y) {
         this.y = y;
     }
+
+    public int getRotation() {
+        return rotation;
+    }
+
+    public void setRotation(int rotation) {
+        this.rotation = normalizeRotation(rotation);
+    }
+    
+    /**
+     * Whether the piece is turned a quarter so its width runs along the y axis
+     */
+    @JsonIgnore
+    public boolean isQuarterTurned() {
+        return rotation == 90 || rotation == 270;
+    }
+    
+    /**
+     * Extent along the x axis after rotation
+     */
+    @JsonIgnore
+    public double getFootprintWidth() {
+        return isQuarterTurned() ? furniture.getDepth() : furniture.getWidth();
+    }
+    
+    /**
+     * Extent along the y axis after rotation
+     */
+    @JsonIgnore
+    public double getFootprintDepth() {
+        return isQuarterTurned() ? furniture.getWidth() : furniture.getDepth();
+    }
+    
+    /**
+     * Extent along the x axis after rotation, in millimetres
+     */
+    @JsonIgnore
+    public int getFootprintWidthMm() {
+        return isQuarterTurned() ? furniture.getDepthMm() : furniture.getWidthMm();
+    }
+    
+    /**
+     * Extent along the y axis after rotation, in millimetres
+     */
+    @JsonIgnore
+    public int getFootprintDepthMm() {
+        return isQuarterTurned() ? furniture.getWidthMm() : furniture.getDepthMm();
+    }
+    
+    /**
+     * Right edge in millimetres
+     */
+    @JsonIgnore
+    public int getMaxXMm() {
+        return x + getFootprintWidthMm();
+    }
+    
+    /**
+     * Top edge in millimetres
+     */
+    @JsonIgnore
+    public int getMaxYMm() {
+        return y + getFootprintDepthMm();
+    }
+    
+    /**
+     * Snap an arbitrary angle to the nearest quarter turn in [0, 360)
+     */
+    public static int normalizeRotation(double degrees) {
+        long quarters = Math.round(degrees / 90.0);
+        return (int) Math.floorMod(quarters * 90, 360L);
+    }
     
     /**
      * Check if this furniture position overlaps with another
      */
     public boolean overlapsWith(FurniturePosition other) {
-        // Calculate boundaries
-        double thisRight = this.x + this.furniture.getWidth();
-        double thisTop = this.y + this.furniture.getDepth();
-        double otherRight = other.x + other.furniture.getWidth();
-        double otherTop = other.y + other.furniture.getDepth();
-        
-        // Check for overlap (no overlap if completely separated on any axis)
-        return !(thisRight <= other.x || this.x >= otherRight ||
-                 thisTop <= other.y || this.y >= otherTop);
+        // Check for overlap (no overlap if completely separated on any axis); touching edges do not overlap
+        return !(getMaxXMm() <= other.x || this.x >= other.getMaxXMm() ||
+                 getMaxYMm() <= other.y || this.y >= other.getMaxYMm());
     }
     
     /**
      * Check if furniture fits within room boundaries
      */
     public boolean fitsInRoom(double roomLength, double roomWidth) {
-        return x >= 0 && y >= 0 &&
-               (x + furniture.getWidth()) <= roomLength &&
-               (y + furniture.getDepth()) <= roomWidth;
+        return fitsInRoomMm(Millimetres.fromMeters(roomLength), Millimetres.fromMeters(roomWidth));
+    }
+    
+    /**
+     * Check if furniture fits within room boundaries given in millimetres
+     */
+    public boolean fitsInRoomMm(int roomLength, int roomWidth) {
+        return x >= 0 && y >= 0 && getMaxXMm() <= roomLength && getMaxYMm() <= roomWidth;
     }
 
     @Override
     public String toString() {
         return "FurniturePosition{" +
                 "furniture=" + furniture.getName() +
-                ", x=" + x +
-                ", y=" + y +
+                ", x=" + getX() +
+                ", y=" + getY() +
+                ", rotation=" + rotation +
                 '}';
     }
 }
@@ -0,0 +1,94 @@
+package com.interiordesign.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Rectangle of floor that must stay free of furniture, such as a door swing or a radiator
+ * Position and size in meters; (x, y) is the bottom-left corner, as for furniture
+ */
+public class KeepOutZone {
+
+    @NotNull(message = "Keep-out zone x is required")
+    @Min(value = 0, message = "Keep-out zone x must not be negative")
+    private Double x;
+
+    @NotNull(message = "Keep-out zone y is required")
+    @Min(value = 0, message = "Keep-out zone y must not be negative")
+    private Double y;
+
+    @NotNull(message = "Keep-out zone width is required")
+    @Positive(message = "Keep-out zone width must be positive")
+    private Double width;   // Along the x-axis
+
+    @NotNull(message = "Keep-out zone depth is required")
+    @Positive(message = "Keep-out zone depth must be positive")
+    private Double depth;   // Along the y-axis
+
+    private String label;   // Optional, e.g. "door"; used in messages
+
+    // Constructors
+    public KeepOutZone() {
+    }
+
+    public KeepOutZone(Double x, Double y, Double width, Double depth, String label) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.depth = depth;
+        this.label = label;
+    }
+
+    // Getters and Setters
+    public Double getX() {
+        return x;
+    }
+
+    public void setX(Double x) {
+        this.x = x;
+    }
+
+    public Double getY() {
+        return y;
+    }
+
+    public void setY(Double y) {
+        this.y = y;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public void setWidth(Double width) {
+        this.width = width;
+    }
+
+    public Double getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Double depth) {
+        this.depth = depth;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return "KeepOutZone{" +
+                "x=" + x +
+                ", y=" + y +
+                ", width=" + width +
+                ", depth=" + depth +
+                ", label='" + label + '\'' +
+                '}';
+    }
+}
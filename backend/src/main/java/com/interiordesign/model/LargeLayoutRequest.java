@@ -0,0 +1,162 @@
+package com.interiordesign.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request to furnish a large space (showroom, office floor, event hall) with given quantities
+ * Rooms go up to 200 m per side instead of the 15 m of {@link Room}; the budget is optional
+ */
+public class LargeLayoutRequest {
+
+    @NotNull(message = "Room length is required")
+    @Min(value = 3, message = "Length must be at least 3 meters")
+    @Max(value = 200, message = "Length must not exceed 200 meters")
+    private Double length;
+
+    @NotNull(message = "Room width is required")
+    @Min(value = 3, message = "Width must be at least 3 meters")
+    @Max(value = 200, message = "Width must not exceed 200 meters")
+    private Double width;
+
+    @Min(value = 0, message = "Budget must not be negative")
+    private Integer budget;  // Optional; no limit when absent
+
+    @Valid
+    @Size(min = 3, max = 64, message = "Outline must have between 3 and 64 points")
+    private List<RoomPoint> outline;
+
+    @Valid
+    @Size(max = 256, message = "At most 256 keep-out zones are allowed")
+    private List<KeepOutZone> keepOutZones;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 200, message = "At most 200 item lines are allowed")
+    @Valid
+    private List<Item> items = new ArrayList<>();
+
+    // Constructors
+    public LargeLayoutRequest() {
+    }
+
+    public LargeLayoutRequest(Double length, Double width, Integer budget, List<Item> items) {
+        this.length = length;
+        this.width = width;
+        this.budget = budget;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public Double getLength() {
+        return length;
+    }
+
+    public void setLength(Double length) {
+        this.length = length;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public void setWidth(Double width) {
+        this.width = width;
+    }
+
+    public Integer getBudget() {
+        return budget;
+    }
+
+    public void setBudget(Integer budget) {
+        this.budget = budget;
+    }
+
+    public List<RoomPoint> getOutline() {
+        return outline;
+    }
+
+    public void setOutline(List<RoomPoint> outline) {
+        this.outline = outline;
+    }
+
+    public List<KeepOutZone> getKeepOutZones() {
+        return keepOutZones;
+    }
+
+    public void setKeepOutZones(List<KeepOutZone> keepOutZones) {
+        this.keepOutZones = keepOutZones;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * The space as a room for the geometry kernel; a missing budget becomes unlimited
+     */
+    public Room toRoom() {
+        Room room = new Room(length, width, budget != null ? budget : Integer.MAX_VALUE);
+        room.setOutline(outline);
+        room.setKeepOutZones(keepOutZones);
+        return room;
+    }
+
+    @Override
+    public String toString() {
+        return "LargeLayoutRequest{" +
+                "length=" + length +
+                ", width=" + width +
+                ", budget=" + budget +
+                ", items=" + (items != null ? items.size() : 0) +
+                '}';
+    }
+
+    /**
+     * One catalog piece and how many of it to place
+     */
+    public static class Item {
+
+        @NotNull(message = "Furniture is required")
+        private Furniture furniture;  // Looked up by id, else by name (items or furniture sets)
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 5000, message = "Quantity must not exceed 5000")
+        private Integer quantity;
+
+        public Item() {
+        }
+
+        public Item(Furniture furniture, Integer quantity) {
+            this.furniture = furniture;
+            this.quantity = quantity;
+        }
+
+        public Furniture getFurniture() {
+            return furniture;
+        }
+
+        public void setFurniture(Furniture furniture) {
+            this.furniture = furniture;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
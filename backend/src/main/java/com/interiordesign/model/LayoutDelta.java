@@ -0,0 +1,111 @@
+package com.interiordesign.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a single-item layout edit
+ * Describes only the piece that changed; the client applies it to its copy of the layout
+ */
+public class LayoutDelta {
+
+    private String operation;  // "add", "move" or "remove"
+    private int index;  // Add: index of the new piece; move/remove: index of the edited piece
+    private FurniturePosition position;  // Resulting position (move/add) or the removed piece
+    private boolean applied;  // False if the edit was rejected and the layout is unchanged
+    private boolean adjusted;  // True if the piece was placed away from the requested position
+    private int totalCost;  // Layout cost after the edit
+    private List<String> warnings = new ArrayList<>();
+
+    // Constructors
+    public LayoutDelta() {
+    }
+
+    public LayoutDelta(String operation, int index) {
+        this.operation = operation;
+        this.index = index;
+    }
+
+    // Getters and Setters
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public FurniturePosition getPosition() {
+        return position;
+    }
+
+    public void setPosition(FurniturePosition position) {
+        this.position = position;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public boolean isAdjusted() {
+        return adjusted;
+    }
+
+    public void setAdjusted(boolean adjusted) {
+        this.adjusted = adjusted;
+    }
+
+    public int getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(int totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public void setWarnings(List<String> warnings) {
+        this.warnings = warnings;
+    }
+
+    /**
+     * Add a warning message
+     */
+    public void addWarning(String warning) {
+        this.warnings.add(warning);
+    }
+
+    /**
+     * Add a coded warning, rendered with its subject
+     */
+    public void addWarning(LayoutWarning code, String subject) {
+        this.warnings.add(code.render(subject));
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutDelta{" +
+                "operation='" + operation + '\'' +
+                ", index=" + index +
+                ", applied=" + applied +
+                ", adjusted=" + adjusted +
+                ", totalCost=" + totalCost +
+                ", warnings=" + warnings.size() +
+                '}';
+    }
+}
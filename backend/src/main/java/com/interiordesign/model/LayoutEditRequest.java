@@ -0,0 +1,89 @@
+package com.interiordesign.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request for a single-item edit of an existing layout
+ * Carries the room and the current furniture so the server stays stateless
+ */
+public class LayoutEditRequest {
+
+    @NotNull(message = "Room is required")
+    @Valid
+    private Room room;
+
+    private List<FurniturePosition> furniture = new ArrayList<>();  // Current layout, as returned by the API
+
+    private Integer index;  // Position in 'furniture' of the piece to move or remove
+
+    private FurniturePosition item;  // Add: piece and requested position; move: requested position
+
+    private Integer rotation;  // Requested rotation in degrees for add and move; if null, add uses item.rotation and move keeps the current one
+
+    // Constructors
+    public LayoutEditRequest() {
+    }
+
+    public LayoutEditRequest(Room room, List<FurniturePosition> furniture, Integer index, FurniturePosition item) {
+        this.room = room;
+        this.furniture = furniture != null ? furniture : new ArrayList<>();
+        this.index = index;
+        this.item = item;
+    }
+
+    // Getters and Setters
+    public Room getRoom() {
+        return room;
+    }
+
+    public void setRoom(Room room) {
+        this.room = room;
+    }
+
+    public List<FurniturePosition> getFurniture() {
+        return furniture;
+    }
+
+    public void setFurniture(List<FurniturePosition> furniture) {
+        this.furniture = furniture != null ? furniture : new ArrayList<>();
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public FurniturePosition getItem() {
+        return item;
+    }
+
+    public void setItem(FurniturePosition item) {
+        this.item = item;
+    }
+
+    public Integer getRotation() {
+        return rotation;
+    }
+
+    public void setRotation(Integer rotation) {
+        this.rotation = rotation;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutEditRequest{" +
+                "room=" + room +
+                ", furnitureCount=" + furniture.size() +
+                ", index=" + index +
+                ", item=" + item +
+                ", rotation=" + rotation +
+                '}';
+    }
+}
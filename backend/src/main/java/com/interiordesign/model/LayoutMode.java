@@ -0,0 +1,39 @@
+package com.interiordesign.model;
+
+import java.util.Locale;
+
+/**
+ * How a room layout is generated
+ * Selected per request through the "mode" query parameter
+ */
+public enum LayoutMode {
+    
+    AI("ai"),                                          // OpenRouter suggestion validated by the rule engine
+    LOCAL("local"),                                    // Deterministic local packing, no AI call
+    AI_WITH_LOCAL_FALLBACK("ai-with-local-fallback");  // AI first, local packing if the AI call fails
+    
+    private final String value;
+    
+    LayoutMode(String value) {
+        this.value = value;
+    }
+    
+    public String getValue() {
+        return value;
+    }
+    
+    /**
+     * Resolve a mode from its request value (case-insensitive)
+     * @throws IllegalArgumentException if the value is not a known mode
+     */
+    public static LayoutMode fromValue(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (LayoutMode mode : values()) {
+            if (mode.value.equals(normalized)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown layout mode '" + value + 
+                "'. Supported modes: ai, local, ai-with-local-fallback");
+    }
+}
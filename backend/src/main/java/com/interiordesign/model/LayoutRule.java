@@ -0,0 +1,109 @@
+package com.interiordesign.model;
+
+import java.util.Objects;
+
+/**
+ * One configurable placement rule for a furniture category, as stored in the layout_rule table
+ */
+public class LayoutRule {
+
+    /**
+     * Kind of rule; value is in meters for all kinds
+     */
+    public enum Type {
+        GAP,      // Minimum gap this category keeps to other pieces
+        WALKWAY,  // Free floor strip of this width needed along at least one side
+        FACES     // A piece of the target category must be directly across a long side, within value
+    }
+
+    private Long id;
+    private String category;
+    private Type type;
+    private String targetCategory;  // FACES only
+    private double value;
+
+    // Constructors
+    public LayoutRule() {
+    }
+
+    public LayoutRule(Long id, String category, Type type, String targetCategory, double value) {
+        this.id = id;
+        this.category = category;
+        this.type = type;
+        this.targetCategory = targetCategory;
+        this.value = value;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getTargetCategory() {
+        return targetCategory;
+    }
+
+    public void setTargetCategory(String targetCategory) {
+        this.targetCategory = targetCategory;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public void setValue(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LayoutRule other = (LayoutRule) o;
+        return Double.compare(value, other.value) == 0
+                && type == other.type
+                && Objects.equals(id, other.id)
+                && Objects.equals(category, other.category)
+                && Objects.equals(targetCategory, other.targetCategory);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, category, type, targetCategory, value);
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutRule{" +
+                "id=" + id +
+                ", category='" + category + '\'' +
+                ", type=" + type +
+                ", targetCategory='" + targetCategory + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package com.interiordesign.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of client-supplied layouts to check against the layout rules
+ */
+public class LayoutValidationRequest {
+
+    @NotEmpty(message = "At least one layout is required")
+    @Valid
+    private List<@NotNull(message = "Layout entries must not be null") SubmittedLayout> layouts = new ArrayList<>();
+
+    // Constructors
+    public LayoutValidationRequest() {
+    }
+
+    public LayoutValidationRequest(List<SubmittedLayout> layouts) {
+        this.layouts = layouts;
+    }
+
+    // Getters and Setters
+    public List<SubmittedLayout> getLayouts() {
+        return layouts;
+    }
+
+    public void setLayouts(List<SubmittedLayout> layouts) {
+        this.layouts = layouts;
+    }
+
+    /**
+     * One saved layout: the room and its placements
+     */
+    public static class SubmittedLayout {
+
+        private String id;  // Optional client reference, echoed in the result
+
+        @NotNull(message = "Room is required")
+        @Valid
+        private Room room;
+
+        @NotNull(message = "Furniture list is required")
+        private List<FurniturePosition> furniture = new ArrayList<>();
+
+        public SubmittedLayout() {
+        }
+
+        public SubmittedLayout(String id, Room room, List<FurniturePosition> furniture) {
+            this.id = id;
+            this.room = room;
+            this.furniture = furniture != null ? furniture : new ArrayList<>();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public Room getRoom() {
+            return room;
+        }
+
+        public void setRoom(Room room) {
+            this.room = room;
+        }
+
+        public List<FurniturePosition> getFurniture() {
+            return furniture;
+        }
+
+        public void setFurniture(List<FurniturePosition> furniture) {
+            this.furniture = furniture;
+        }
+    }
+}
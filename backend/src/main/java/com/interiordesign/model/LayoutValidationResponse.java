@@ -0,0 +1,115 @@
+package com.interiordesign.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validation results for a batch of layouts
+ * All layouts in a batch are checked against the same catalog snapshot
+ */
+public class LayoutValidationResponse {
+
+    private long catalogVersion;
+    private int layoutsChecked;
+    private int invalidLayouts;
+    private List<Result> results = new ArrayList<>();
+
+    // Constructors
+    public LayoutValidationResponse() {
+    }
+
+    public LayoutValidationResponse(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    // Getters and Setters
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public int getLayoutsChecked() {
+        return layoutsChecked;
+    }
+
+    public void setLayoutsChecked(int layoutsChecked) {
+        this.layoutsChecked = layoutsChecked;
+    }
+
+    public int getInvalidLayouts() {
+        return invalidLayouts;
+    }
+
+    public void setInvalidLayouts(int invalidLayouts) {
+        this.invalidLayouts = invalidLayouts;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    /**
+     * Record the result of one layout
+     */
+    public void addResult(Result result) {
+        results.add(result);
+        layoutsChecked++;
+        if (!result.isValid()) {
+            invalidLayouts++;
+        }
+    }
+
+    /**
+     * Outcome for one submitted layout
+     */
+    public static class Result {
+
+        private String id;
+        private int totalCost;  // Cost at current catalog prices
+        private List<LayoutViolation> violations = new ArrayList<>();
+
+        public Result() {
+        }
+
+        public Result(String id, int totalCost, List<LayoutViolation> violations) {
+            this.id = id;
+            this.totalCost = totalCost;
+            this.violations = violations != null ? violations : new ArrayList<>();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public boolean isValid() {
+            return violations.isEmpty();
+        }
+
+        public int getTotalCost() {
+            return totalCost;
+        }
+
+        public void setTotalCost(int totalCost) {
+            this.totalCost = totalCost;
+        }
+
+        public List<LayoutViolation> getViolations() {
+            return violations;
+        }
+
+        public void setViolations(List<LayoutViolation> violations) {
+            this.violations = violations;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.interiordesign.model;
+
+/**
+ * A rule broken by one piece of a submitted layout
+ */
+public class LayoutViolation {
+
+    /**
+     * Rule that was broken
+     */
+    public enum Type {
+        INVALID_ROOM,       // Room outline or keep-out zones are malformed; reported once with index -1
+        UNKNOWN_FURNITURE,  // Piece is not in the current catalog
+        WALL_CLEARANCE,     // Piece is outside the room or within the wall clearance band
+        KEEP_OUT,           // Piece overlaps one of the room's keep-out zones
+        COLLISION,          // Piece overlaps, or is closer than the minimum gap to, another piece
+        BUDGET,             // Running layout cost exceeds the budget at this piece
+        ADJACENCY           // Piece breaks a category rule such as a walkway or facing requirement
+    }
+
+    private int index;  // Position of the piece in the submitted layout, or -1 for INVALID_ROOM
+    private String furnitureName;
+    private Type type;
+    private Integer otherIndex;  // Colliding piece, for COLLISION only
+    private String message;
+
+    // Constructors
+    public LayoutViolation() {
+    }
+
+    public LayoutViolation(int index, String furnitureName, Type type, Integer otherIndex, String message) {
+        this.index = index;
+        this.furnitureName = furnitureName;
+        this.type = type;
+        this.otherIndex = otherIndex;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getFurnitureName() {
+        return furnitureName;
+    }
+
+    public void setFurnitureName(String furnitureName) {
+        this.furnitureName = furnitureName;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Integer getOtherIndex() {
+        return otherIndex;
+    }
+
+    public void setOtherIndex(Integer otherIndex) {
+        this.otherIndex = otherIndex;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutViolation{" +
+                "index=" + index +
+                ", type=" + type +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package com.interiordesign.model;
+
+/**
+ * Coded layout warning
+ * Solvers record a code and its subject (usually a furniture name) without building the message;
+ * the text is rendered only when the warnings are read, e.g. when the response is serialized
+ */
+public enum LayoutWarning {
+
+    NOT_IN_CATALOG("Furniture '%s' not found in catalog"),
+    BUDGET_LIMIT("Budget limit reached, could not place %s"),
+    NOT_PLACED("Could not place %s at suggested position"),
+    NO_FREE_SPACE("No free space left for %s"),
+    NOTHING_PLACED("No furniture could be placed with the given constraints"),
+    BUDGET_LIMIT_COUNT("Budget limit reached, could not place %s"),  // Subject is "<count> × <name>"
+    NO_FREE_SPACE_COUNT("No free space left for %s"),                // Subject is "<count> × <name>"
+    CUSTOM("%s");  // Free-text warning; the subject is the message
+
+    private final String template;
+
+    LayoutWarning(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Whether the subject is the name of a piece that was not placed
+     */
+    public boolean namesPiece() {
+        return this == BUDGET_LIMIT || this == NOT_PLACED || this == NO_FREE_SPACE;
+    }
+
+    /**
+     * Render the message for a subject
+     * A null subject, e.g. a submitted piece without a name, renders as "unnamed"
+     */
+    public String render(String subject) {
+        return template.contains("%s") ? template.replace("%s", subject != null ? subject : "unnamed") : template;
+    }
+}
@@ -1,12 +1,22 @@
 package com.interiordesign.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.interiordesign.geometry.FloorPlan;
+import com.interiordesign.geometry.Millimetres;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Room entity representing user input for layout generation
  * Contains room dimensions and budget constraints
+ * Length and width give the bounding rectangle; an optional outline and keep-out zones
+ * describe L-shaped or angled rooms and floor that must stay free
  */
 public class Room {
     
@@ -24,6 +34,16 @@ public class Room {
     @Min(value = 500, message = "Budget must be at least $500")
     @Max(value = 10000, message = "Budget must not exceed $10,000")
     private Integer budget;
+    
+    @Valid
+    @Size(min = 3, max = 64, message = "Outline must have between 3 and 64 points")
+    private List<RoomPoint> outline;  // Optional; corners in order, within length × width
+    
+    @Valid
+    @Size(max = 32, message = "At most 32 keep-out zones are allowed")
+    private List<KeepOutZone> keepOutZones;  // Optional
+    
+    private FloorPlan floorPlan;  // Built on first use, dropped when the shape changes
 
     // Constructors
     public Room() {
@@ -42,6 +62,7 @@ public class Room {
 
     public void setLength(Double length) {
         this.length = length;
+        this.floorPlan = null;
     }
 
     public Double getWidth() {
@@ -50,6 +71,7 @@ public class Room {
 
     public void setWidth(Double width) {
         this.width = width;
+        this.floorPlan = null;
     }
 
     public Integer getBudget() {
@@ -59,12 +81,100 @@ public class Room {
     public void setBudget(Integer budget) {
         this.budget = budget;
     }
+
+    public List<RoomPoint> getOutline() {
+        return outline;
+    }
+
+    public void setOutline(List<RoomPoint> outline) {
+        this.outline = outline;
+        this.floorPlan = null;
+    }
+
+    public List<KeepOutZone> getKeepOutZones() {
+        return keepOutZones;
+    }
+
+    public void setKeepOutZones(List<KeepOutZone> keepOutZones) {
+        this.keepOutZones = keepOutZones;
+        this.floorPlan = null;
+    }
     
     /**
-     * Calculate room area in square meters
+     * Calculate room area in square meters; the area inside the outline when one is given
      */
     public double getArea() {
-        return length * width;
+        if (outline == null || outline.isEmpty()) {
+            return length * width;
+        }
+        return Millimetres.toSquareMeters(getFloorPlan().getArea());
+    }
+    
+    /**
+     * Whether the room is more than its bounding rectangle: it has an outline or keep-out zones
+     */
+    @JsonIgnore
+    public boolean isShaped() {
+        return (outline != null && !outline.isEmpty()) || (keepOutZones != null && !keepOutZones.isEmpty());
+    }
+    
+    /**
+     * Usable floor in millimetres for the geometry kernel
+     * Converted and checked once per room object, i.e. once per request; rasters built from it are cached on it
+     * 
+     * @throws IllegalArgumentException if the outline or a keep-out zone is malformed
+     */
+    @JsonIgnore
+    public FloorPlan getFloorPlan() {
+        FloorPlan plan = floorPlan;
+        if (plan == null) {
+            int[] xs = null;
+            int[] ys = null;
+            if (outline != null && !outline.isEmpty()) {
+                xs = new int[outline.size()];
+                ys = new int[outline.size()];
+                for (int i = 0; i < xs.length; i++) {
+                    xs[i] = Millimetres.fromMeters(outline.get(i).getX());
+                    ys[i] = Millimetres.fromMeters(outline.get(i).getY());
+                }
+            }
+            List<int[]> zones = new ArrayList<>();
+            if (keepOutZones != null) {
+                for (KeepOutZone zone : keepOutZones) {
+                    int x = Millimetres.fromMeters(zone.getX());
+                    int y = Millimetres.fromMeters(zone.getY());
+                    zones.add(new int[] {x, y, x + Millimetres.fromMeters(zone.getWidth()),
+                                         y + Millimetres.fromMeters(zone.getDepth())});
+                }
+            }
+            plan = new FloorPlan(getLengthMm(), getWidthMm(), xs, ys, zones);
+            floorPlan = plan;
+        }
+        return plan;
+    }
+    
+    /**
+     * Label of a keep-out zone for messages, e.g. "keep-out zone 2 (door)"
+     */
+    public String describeKeepOutZone(int index) {
+        String label = keepOutZones.get(index).getLabel();
+        return "keep-out zone " + (index + 1) + (label == null || label.isBlank() ? "" : " (" + label + ")");
+    }
+    
+    /**
+     * Length in whole millimetres, for the geometry kernel
+     */
+    @JsonIgnore
+    public int getLengthMm() {
+        return Millimetres.fromMeters(length);
+    }
+    
+    /**
+     * Width in whole millimetres, for the geometry kernel
+     */
+    @JsonIgnore
+    public int getWidthMm() {
+        return Millimetres.fromMeters(width);
     }
 
     @Override
@@ -73,6 +183,8 @@ public class Room {
                 "length=" + length +
                 ", width=" + width +
                 ", budget=" + budget +
+                (outline != null && !outline.isEmpty() ? ", outline=" + outline : "") +
+                (keepOutZones != null && !keepOutZones.isEmpty() ? ", keepOutZones=" + keepOutZones.size() : "") +
                 ", area=" + getArea() + "m²" +
                 '}';
     }
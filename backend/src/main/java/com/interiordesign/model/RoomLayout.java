@@ -1,30 +1,40 @@
 package com.interiordesign.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents the complete room layout with furniture positions
  * Contains all placed furniture, total cost, warnings, and AI reasoning
+ * Warnings are kept as codes with a subject and rendered to text on first read
  */
 public class RoomLayout {
     
     private List<FurniturePosition> furniture;  // Changed from 'positions' to 'furniture' for frontend compatibility
     private int totalCost;
-    private List<String> warnings;
+    private LayoutWarning[] warningCodes = new LayoutWarning[4];
+    private String[] warningSubjects = new String[4];
+    private int warningCount;
+    private List<String> renderedWarnings;  // Cache of the rendered texts, dropped on every change
     private String reasoning;  // AI explanation of layout choices
+    private Map<String, Object> metadata = new LinkedHashMap<>();  // Pipeline statistics (pruning, timings)
 
     // Constructors
     public RoomLayout() {
         this.furniture = new ArrayList<>();
-        this.warnings = new ArrayList<>();
         this.totalCost = 0;
     }
 
     public RoomLayout(List<FurniturePosition> furniture, int totalCost, List<String> warnings, String reasoning) {
         this.furniture = furniture != null ? furniture : new ArrayList<>();
         this.totalCost = totalCost;
-        this.warnings = warnings != null ? warnings : new ArrayList<>();
+        setWarnings(warnings);
         this.reasoning = reasoning;
     }
 
@@ -45,12 +55,49 @@ public class RoomLayout {
         this.totalCost = totalCost;
     }
 
+    /**
+     * Warning messages in the order they were added
+     * @return Unmodifiable list of rendered messages
+     */
     public List<String> getWarnings() {
-        return warnings;
+        if (renderedWarnings == null) {
+            List<String> rendered = new ArrayList<>(warningCount);
+            for (int i = 0; i < warningCount; i++) {
+                rendered.add(warningCodes[i].render(warningSubjects[i]));
+            }
+            renderedWarnings = Collections.unmodifiableList(rendered);
+        }
+        return renderedWarnings;
     }
 
     public void setWarnings(List<String> warnings) {
-        this.warnings = warnings;
+        warningCount = 0;
+        renderedWarnings = null;
+        if (warnings != null) {
+            for (String warning : warnings) {
+                addWarning(warning);
+            }
+        }
+    }
+    
+    @JsonIgnore
+    public int getWarningCount() {
+        return warningCount;
+    }
+    
+    /**
+     * Code of the i-th warning
+     */
+    public LayoutWarning getWarningCode(int i) {
+        return warningCodes[i];
+    }
+    
+    /**
+     * Subject of the i-th warning: a furniture name, the free text for {@link LayoutWarning#CUSTOM},
+     * or null for warnings without a subject
+     */
+    public String getWarningSubject(int i) {
+        return warningSubjects[i];
     }
 
     public String getReasoning() {
@@ -61,6 +108,21 @@ public class RoomLayout {
         this.reasoning = reasoning;
     }
     
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+    
+    /**
+     * Record a pipeline statistic in the layout metadata
+     */
+    public void putMetadata(String key, Object value) {
+        this.metadata.put(key, value);
+    }
+    
     /**
      * Add a furniture position to the layout
      */
@@ -70,10 +132,26 @@ public class RoomLayout {
     }
     
     /**
-     * Add a warning message
+     * Add a free-text warning message
      */
     public void addWarning(String warning) {
-        this.warnings.add(warning);
+        addWarning(LayoutWarning.CUSTOM, warning);
+    }
+    
+    /**
+     * Add a coded warning; the message is rendered only when the warnings are read
+     * 
+     * @param subject Furniture name the warning is about, or null if the code takes none
+     */
+    public void addWarning(LayoutWarning code, String subject) {
+        if (warningCount == warningCodes.length) {
+            warningCodes = Arrays.copyOf(warningCodes, warningCount * 2);
+            warningSubjects = Arrays.copyOf(warningSubjects, warningCount * 2);
+        }
+        warningCodes[warningCount] = code;
+        warningSubjects[warningCount] = subject;
+        warningCount++;
+        renderedWarnings = null;
     }
     
     /**
@@ -88,7 +166,7 @@ public class RoomLayout {
         return "RoomLayout{" +
                 "furnitureCount=" + furniture.size() +
                 ", totalCost=" + totalCost +
-                ", warnings=" + warnings.size() +
+                ", warnings=" + warningCount +
                 '}';
     }
 }
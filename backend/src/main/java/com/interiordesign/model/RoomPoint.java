@@ -0,0 +1,49 @@
+package com.interiordesign.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Corner of a room outline, in meters from the bottom-left corner of the room's bounding rectangle
+ */
+public class RoomPoint {
+
+    @NotNull(message = "Outline point x is required")
+    @Min(value = 0, message = "Outline point x must not be negative")
+    private Double x;
+
+    @NotNull(message = "Outline point y is required")
+    @Min(value = 0, message = "Outline point y must not be negative")
+    private Double y;
+
+    // Constructors
+    public RoomPoint() {
+    }
+
+    public RoomPoint(Double x, Double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    // Getters and Setters
+    public Double getX() {
+        return x;
+    }
+
+    public void setX(Double x) {
+        this.x = x;
+    }
+
+    public Double getY() {
+        return y;
+    }
+
+    public void setY(Double y) {
+        this.y = y;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
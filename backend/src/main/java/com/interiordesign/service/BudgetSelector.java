@@ -0,0 +1,151 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.CatalogColumns;
+import com.interiordesign.model.Furniture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses which suggested pieces to buy within the budget
+ * Solves a 0/1 knapsack over prices where each piece is worth its category priority
+ * (a furniture set is worth the sum of its members), so one expensive early suggestion
+ * cannot crowd out several cheaper, more important ones
+ */
+@Component
+public class BudgetSelector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetSelector.class);
+    
+    private static final long MAX_DP_CELLS = 20_000_000L;  // Above this, fall back to the greedy order
+    
+    /**
+     * Select the subset of items with the highest total priority whose prices fit the budget
+     * Among equally valued subsets, the one keeping earlier items wins
+     * 
+     * @param items Suggested items in suggestion order (null entries are ignored)
+     * @param budget Budget in dollars
+     * @return Flags parallel to items; true for items to place
+     */
+    public boolean[] select(Furniture[] items, int budget) {
+        int[] prices = new int[items.length];
+        int[] values = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            prices[i] = items[i] != null ? items[i].getPrice() : -1;
+            values[i] = items[i] != null ? CategoryPriority.weight(items[i]) : 0;
+        }
+        return select(prices, values, budget);
+    }
+    
+    /**
+     * Select among catalog rows, reading prices and categories from the columns
+     * 
+     * @param columns Catalog columns the rows refer to
+     * @param rows Suggested rows in suggestion order (negative entries are ignored)
+     * @param budget Budget in dollars
+     * @return Flags parallel to rows; true for rows to place
+     */
+    public boolean[] select(CatalogColumns columns, int[] rows, int budget) {
+        int[] categoryWeight = new int[columns.categoryCount()];
+        for (int id = 0; id < categoryWeight.length; id++) {
+            categoryWeight[id] = CategoryPriority.weight(columns.categoryName(id));
+        }
+        int[] prices = new int[rows.length];
+        int[] values = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] < 0) {
+                prices[i] = -1;
+                continue;
+            }
+            prices[i] = columns.price(rows[i]);
+            for (int category : columns.memberCategories(rows[i])) {
+                values[i] += categoryWeight[category];
+            }
+        }
+        return select(prices, values, budget);
+    }
+    
+    /**
+     * Knapsack over primitive columns
+     * 
+     * @param prices Price of each item; negative for entries to ignore
+     * @param values Priority value of each item
+     * @param budget Budget in dollars
+     * @return Flags parallel to prices; true for items to place
+     */
+    boolean[] select(int[] prices, int[] values, int budget) {
+        long startTime = System.nanoTime();
+        int n = prices.length;
+        boolean[] selected = new boolean[n];
+        if (n == 0 || budget <= 0) {
+            return selected;
+        }
+        
+        // Scale prices and budget down by their common divisor to shrink the table
+        int divisor = budget;
+        for (int price : prices) {
+            if (price >= 0) {
+                divisor = gcd(divisor, price);
+            }
+        }
+        int capacity = budget / divisor;
+        
+        if ((long) n * (capacity + 1) > MAX_DP_CELLS) {
+            selectInOrder(prices, budget, selected);
+            return selected;
+        }
+        
+        // best[c] = highest value achievable with scaled cost <= c using the items processed so far
+        // Items are processed last to first so reconstruction walks forward and prefers earlier items
+        int[] best = new int[capacity + 1];
+        long[][] taken = new long[n][(capacity >>> 6) + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            if (prices[i] < 0) {
+                continue;
+            }
+            int cost = prices[i] / divisor;
+            int value = values[i];
+            for (int c = capacity; c >= cost; c--) {
+                int candidate = best[c - cost] + value;
+                if (candidate >= best[c]) {
+                    best[c] = candidate;
+                    taken[i][c >>> 6] |= 1L << (c & 63);
+                }
+            }
+        }
+        
+        int c = capacity;
+        for (int i = 0; i < n; i++) {
+            if (prices[i] >= 0 && (taken[i][c >>> 6] & (1L << (c & 63))) != 0) {
+                selected[i] = true;
+                c -= prices[i] / divisor;
+            }
+        }
+        
+        logger.debug("Budget selection over {} items (capacity {} x ${}) took {}µs", 
+                n, capacity, divisor, (System.nanoTime() - startTime) / 1000);
+        return selected;
+    }
+    
+    /**
+     * First-come selection used when the knapsack table would be too large
+     */
+    private void selectInOrder(int[] prices, int budget, boolean[] selected) {
+        int remaining = budget;
+        for (int i = 0; i < prices.length; i++) {
+            if (prices[i] >= 0 && prices[i] <= remaining) {
+                selected[i] = true;
+                remaining -= prices[i];
+            }
+        }
+    }
+    
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,163 @@
+package com.interiordesign.service;
+
+import com.interiordesign.ai.model.AILayoutResponse;
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Generates several candidate layouts for one room concurrently and keeps the best one
+ * Candidates differ in the order pieces are placed (suggested order, anchor pieces first,
+ * largest first, and seeded shuffles); each is scored with the {@link LayoutObjective}
+ */
+@Component
+public class CandidateLayoutSearch {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CandidateLayoutSearch.class);
+    
+    private final RuleEngine ruleEngine;
+    private final LocalLayoutSolver localSolver;
+    private final LayoutObjective objective;
+    private final ForkJoinPool pool;
+    
+    @Value("${layout.candidates.count:4}")
+    private int candidateCount = 4;
+    
+    public CandidateLayoutSearch(RuleEngine ruleEngine, LocalLayoutSolver localSolver, LayoutObjective objective,
+                                 ForkJoinPool solverPool) {
+        this.ruleEngine = ruleEngine;
+        this.localSolver = localSolver;
+        this.objective = objective;
+        this.pool = solverPool;
+    }
+    
+    /**
+     * Validate the AI suggestion under several placement orders and return the best layout
+     * 
+     * @param room Room specifications
+     * @param catalog Catalog snapshot used to resolve suggested names
+     * @param aiSuggestions AI-generated layout suggestions
+     * @return Highest scoring validated layout
+     */
+    public RoomLayout bestAILayout(Room room, CatalogSnapshot catalog, AILayoutResponse aiSuggestions) {
+        List<AILayoutResponse.AIFurniturePlacement> suggested = aiSuggestions.getFurniture();
+        List<List<AILayoutResponse.AIFurniturePlacement>> orders = placementOrders(suggested,
+                placement -> catalog.findPlaceable(placement.getName()));
+        
+        return evaluate(room, orders, order -> ruleEngine.generateLayout(room, catalog,
+                new AILayoutResponse(order, aiSuggestions.getTotalCost(), aiSuggestions.getReasoning())));
+    }
+    
+    /**
+     * Pack the candidates locally under several placement orders and return the best layout
+     * 
+     * @param room Room specifications
+     * @param candidates Catalog rows that may be placed
+     * @return Highest scoring packed layout
+     */
+    public RoomLayout bestLocalLayout(Room room, CatalogPruner.Result candidates) {
+        List<List<Furniture>> orders = placementOrders(
+                localSolver.selectionOrder(candidates.getColumns(), candidates.getRows()), f -> f);
+        return evaluate(room, orders, order -> localSolver.pack(room, order));
+    }
+    
+    /**
+     * Build the candidate placement orders: original, anchor-first, largest-first, then seeded shuffles
+     */
+    private <T> List<List<T>> placementOrders(List<T> base, Function<T, Furniture> resolver) {
+        int count = Math.max(1, candidateCount);
+        List<List<T>> orders = new ArrayList<>(count);
+        orders.add(base);
+        
+        if (count > 1) {
+            List<T> anchorsFirst = new ArrayList<>(base);
+            anchorsFirst.sort(Comparator.comparingInt(item -> {
+                Furniture furniture = resolver.apply(item);
+                return furniture != null ? CategoryPriority.rank(furniture.getCategory()) : Integer.MAX_VALUE;
+            }));
+            orders.add(anchorsFirst);
+        }
+        if (count > 2) {
+            List<T> largestFirst = new ArrayList<>(base);
+            largestFirst.sort(Comparator.comparingDouble(item -> {
+                Furniture furniture = resolver.apply(item);
+                return furniture != null ? -furniture.getWidth() * furniture.getDepth() : 0;
+            }));
+            orders.add(largestFirst);
+        }
+        for (int seed = orders.size(); seed < count; seed++) {
+            List<T> shuffled = new ArrayList<>(base);
+            Collections.shuffle(shuffled, new Random(seed));  // Fixed seeds keep results reproducible
+            orders.add(shuffled);
+        }
+        return orders;
+    }
+    
+    /**
+     * Build and score every candidate on the pool; ties go to the earliest candidate
+     */
+    private <T> RoomLayout evaluate(Room room, List<T> orders, Function<T, RoomLayout> builder) {
+        long startTime = System.nanoTime();
+        
+        ScoredLayout best;
+        if (orders.size() == 1) {
+            best = score(room, builder.apply(orders.get(0)), 0);
+        } else {
+            List<ForkJoinTask<ScoredLayout>> tasks = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                T order = orders.get(i);
+                int index = i;
+                tasks.add(pool.submit(() -> score(room, builder.apply(order), index)));
+            }
+            
+            best = null;
+            for (ForkJoinTask<ScoredLayout> task : tasks) {
+                ScoredLayout candidate = task.join();
+                if (best == null || candidate.score > best.score) {
+                    best = candidate;
+                }
+            }
+        }
+        
+        RoomLayout layout = best.layout;
+        layout.putMetadata("candidatesEvaluated", orders.size());
+        layout.putMetadata("selectedCandidate", best.index);
+        layout.putMetadata("score", Math.round(best.score * 100) / 100.0);
+        logger.debug("Evaluated {} candidate layouts in {}ms, best #{} scored {}",
+                orders.size(), (System.nanoTime() - startTime) / 1_000_000, best.index, best.score);
+        return layout;
+    }
+    
+    private ScoredLayout score(Room room, RoomLayout layout, int index) {
+        return new ScoredLayout(layout, objective.score(room, layout), index);
+    }
+    
+    /**
+     * Candidate layout with its objective score
+     */
+    private static class ScoredLayout {
+        private final RoomLayout layout;
+        private final double score;
+        private final int index;
+        
+        ScoredLayout(RoomLayout layout, double score, int index) {
+            this.layout = layout;
+            this.score = score;
+            this.index = index;
+        }
+    }
+}
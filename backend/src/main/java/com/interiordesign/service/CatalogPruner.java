@@ -0,0 +1,230 @@
+package com.interiordesign.service;
+
+import com.interiordesign.ai.AIPromptBuilder;
+import com.interiordesign.dao.CatalogColumns;
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prunes the furniture catalog before it is sent to the AI
+ * Drops items that are over budget or cannot fit inside the room's wall clearance in either orientation,
+ * and caps how many items of each category are offered
+ * Furniture sets go through the same budget and fit checks but are not subject to the category cap
+ * The scan runs over the snapshot's catalog columns; objects are looked up only for the retained rows
+ * Prompt line lengths are measured once per snapshot, so reporting the tokens saved builds no strings
+ */
+@Component
+public class CatalogPruner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogPruner.class);
+    
+    private final AIPromptBuilder promptBuilder;
+    private final LayoutRules layoutRules;
+    private final AtomicReference<PromptSizes> promptSizes = new AtomicReference<>();
+    
+    @Value("${layout.prune.max-per-category:3}")
+    private int maxPerCategory;  // 0 disables the cap
+    
+    public CatalogPruner(AIPromptBuilder promptBuilder, LayoutRules layoutRules) {
+        this.promptBuilder = promptBuilder;
+        this.layoutRules = layoutRules;
+    }
+    
+    /**
+     * Select the catalog items worth offering to the AI for this room
+     * 
+     * @param room Room specifications (dimensions and budget)
+     * @param catalog Catalog snapshot
+     * @return Pruned catalog with statistics about what was dropped
+     */
+    public Result prune(Room room, CatalogSnapshot catalog) {
+        int clearance = layoutRules.current().getWallClearanceMm();
+        int usableLength = room.getLengthMm() - 2 * clearance;
+        int usableWidth = room.getWidthMm() - 2 * clearance;
+        int budget = room.getBudget();
+        CatalogColumns columns = catalog.getColumns();
+        
+        // Item rows are ordered by price: binary search skips everything above the budget without scanning it
+        int affordable = columns.countItemsUpTo(budget);
+        int overBudget = columns.itemCount() - affordable;
+        
+        int[] rows = new int[columns.size()];
+        int kept = 0;
+        int[] perCategory = new int[columns.categoryCount()];
+        int tooLarge = 0;
+        int overCategoryCap = 0;
+        
+        // Affordable items arrive cheapest first, so the cap keeps the cheapest N per category
+        for (int row = 0; row < affordable; row++) {
+            if (!fitsUsableFloor(columns.width(row), columns.depth(row), usableLength, usableWidth)) {
+                tooLarge++;
+                continue;
+            }
+            if (maxPerCategory > 0 && ++perCategory[columns.category(row)] > maxPerCategory) {
+                overCategoryCap++;
+                continue;
+            }
+            rows[kept++] = row;
+        }
+        
+        // Present the prompt grouped by category like the full catalog; the key's low bits keep price order
+        long[] keys = new long[kept];
+        for (int i = 0; i < kept; i++) {
+            keys[i] = ((long) columns.categoryOrder(columns.category(rows[i])) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[columns.size()];
+        for (int i = 0; i < kept; i++) {
+            sorted[i] = rows[(int) keys[i]];
+        }
+        rows = sorted;
+        
+        // Sets follow the single items
+        for (int row = columns.itemCount(); row < columns.size(); row++) {
+            if (columns.price(row) > budget) {
+                overBudget++;
+            } else if (!fitsUsableFloor(columns.width(row), columns.depth(row), usableLength, usableWidth)) {
+                tooLarge++;
+            } else {
+                rows[kept++] = row;
+            }
+        }
+        rows = Arrays.copyOf(rows, kept);
+        
+        List<Furniture> retained = new ArrayList<>(kept);
+        for (int row : rows) {
+            retained.add(columns.piece(row));
+        }
+        
+        int offered = catalog.size() + catalog.getGroups().size();
+        int dropped = offered - retained.size();
+        int tokensSaved = 0;
+        if (dropped > 0) {
+            PromptSizes sizes = promptSizes(catalog);
+            long retainedChars = 0;
+            for (int row : rows) {
+                retainedChars += sizes.chars[row];
+            }
+            tokensSaved = promptBuilder.estimateTokens(sizes.totalChars) - promptBuilder.estimateTokens(retainedChars);
+        }
+        
+        logger.info("Pruned catalog from {} to {} items (over budget: {}, too large: {}, over category cap: {}), ~{} prompt tokens saved",
+                offered, retained.size(), overBudget, tooLarge, overCategoryCap, tokensSaved);
+        
+        return new Result(retained, columns, rows, overBudget, tooLarge, overCategoryCap, tokensSaved);
+    }
+    
+    /**
+     * Prompt line lengths of the given snapshot, measured on first use and kept until the snapshot is swapped
+     */
+    private PromptSizes promptSizes(CatalogSnapshot catalog) {
+        PromptSizes sizes = promptSizes.get();
+        if (sizes == null || sizes.snapshot != catalog) {
+            sizes = new PromptSizes(catalog, promptBuilder);
+            promptSizes.set(sizes);  // Racing requests measure the same snapshot; either result is right
+        }
+        return sizes;
+    }
+    
+    private static boolean fitsUsableFloor(int width, int depth, int usableLength, int usableWidth) {
+        return (width <= usableLength && depth <= usableWidth) ||
+               (depth <= usableLength && width <= usableWidth);
+    }
+    
+    /**
+     * Characters each catalog row takes in the prompt, by column row
+     */
+    private static final class PromptSizes {
+        private final CatalogSnapshot snapshot;
+        private final int[] chars;
+        private final long totalChars;
+        
+        PromptSizes(CatalogSnapshot snapshot, AIPromptBuilder promptBuilder) {
+            CatalogColumns columns = snapshot.getColumns();
+            this.snapshot = snapshot;
+            this.chars = new int[columns.size()];
+            long total = 0;
+            for (int row = 0; row < chars.length; row++) {
+                chars[row] = promptBuilder.formatCatalogEntry(columns.piece(row)).length();
+                total += chars[row];
+            }
+            this.totalChars = total;
+        }
+    }
+    
+    /**
+     * Outcome of a pruning pass
+     */
+    public static class Result {
+        private final List<Furniture> furniture;
+        private final CatalogColumns columns;
+        private final int[] rows;
+        private final int overBudget;
+        private final int tooLarge;
+        private final int overCategoryCap;
+        private final int tokensSaved;
+        
+        public Result(List<Furniture> furniture, CatalogColumns columns, int[] rows,
+                      int overBudget, int tooLarge, int overCategoryCap, int tokensSaved) {
+            this.furniture = Collections.unmodifiableList(furniture);
+            this.columns = columns;
+            this.rows = rows;
+            this.overBudget = overBudget;
+            this.tooLarge = tooLarge;
+            this.overCategoryCap = overCategoryCap;
+            this.tokensSaved = tokensSaved;
+        }
+        
+        /**
+         * Retained pieces in prompt order
+         */
+        public List<Furniture> getFurniture() {
+            return furniture;
+        }
+        
+        /**
+         * Catalog columns the rows refer to
+         */
+        public CatalogColumns getColumns() {
+            return columns;
+        }
+        
+        /**
+         * Column rows of the retained pieces, parallel to {@link #getFurniture()}; shared, do not modify
+         */
+        public int[] getRows() {
+            return rows;
+        }
+        
+        public int getOverBudget() {
+            return overBudget;
+        }
+        
+        public int getTooLarge() {
+            return tooLarge;
+        }
+        
+        public int getOverCategoryCap() {
+            return overCategoryCap;
+        }
+        
+        public int getDroppedCount() {
+            return overBudget + tooLarge + overCategoryCap;
+        }
+        
+        public int getTokensSaved() {
+            return tokensSaved;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.interiordesign.service;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relative importance of furniture categories
+ * Anchor pieces (beds, sofas, tables) come before accessories when a layout
+ * cannot hold everything
+ */
+final class CategoryPriority {
+    
+    private static final List<String> ORDER = List.of(
+            "bed", "sofa", "dining", "desk", "tvstand", "coffee", "armchair", "dresser",
+            "chair", "storage", "bookshelf", "nightstand", "sidetable", "ottoman");
+    
+    private static final Map<String, Integer> RANKS = buildRanks();
+    
+    private CategoryPriority() {
+    }
+    
+    /**
+     * Rank of a category; lower ranks are placed first, unknown categories go last
+     */
+    static int rank(String category) {
+        if (category == null) {
+            return ORDER.size();
+        }
+        return RANKS.getOrDefault(category.toLowerCase(Locale.ROOT), ORDER.size());
+    }
+    
+    /**
+     * Value of a category when choosing what to buy: anchors are worth the most, unknown categories 1
+     */
+    static int weight(String category) {
+        return ORDER.size() + 1 - rank(category);
+    }
+    
+    /**
+     * Value of a piece when choosing what to buy; a furniture set is worth the sum of its members
+     */
+    static int weight(Furniture furniture) {
+        if (furniture instanceof FurnitureGroup group) {
+            int total = 0;
+            for (FurniturePosition member : group.getMembers()) {
+                total += weight(member.getFurniture().getCategory());
+            }
+            return total;
+        }
+        return weight(furniture.getCategory());
+    }
+    
+    private static Map<String, Integer> buildRanks() {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < ORDER.size(); i++) {
+            ranks.put(ORDER.get(i), i);
+        }
+        return Map.copyOf(ranks);
+    }
+}
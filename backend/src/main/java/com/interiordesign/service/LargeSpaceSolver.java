@@ -0,0 +1,347 @@
+package com.interiordesign.service;
+
+import com.interiordesign.geometry.FloorPlan;
+import com.interiordesign.geometry.MaxRectsPacker;
+import com.interiordesign.geometry.Millimetres;
+import com.interiordesign.geometry.SweepLineValidator;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutWarning;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Placement for large spaces with hundreds or thousands of pieces, without an AI call
+ * The usable floor is cut into a grid of tiles and each tile is packed on its own, in parallel, with
+ * the MaxRects heuristic of {@link LocalLayoutSolver}. Boxes carry the piece's gap on their right and
+ * top edges, so pieces in neighbouring tiles keep their gap across a seam by construction
+ * Pieces a tile cannot take are offered to the other tiles afterwards, and a final sweep over every
+ * box checks the seams; a piece found too close to an earlier one there is dropped
+ */
+@Component
+public class LargeSpaceSolver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LargeSpaceSolver.class);
+    
+    private final LayoutRules layoutRules;
+    private final ForkJoinPool pool;
+    
+    @Value("${layout.large.tile-size:6.0}")
+    private double tileSize = 6.0;
+    
+    public LargeSpaceSolver(LayoutRules layoutRules, ForkJoinPool solverPool) {
+        this.layoutRules = layoutRules;
+        this.pool = solverPool;
+    }
+    
+    /**
+     * Place pieces in a large room
+     *
+     * @param room Room; its budget caps the pieces taken, in request order
+     * @param pieces Pieces in priority order, one entry per piece to place
+     * @return Layout with placement statistics in its metadata; pieces left out are counted per name
+     */
+    public RoomLayout place(Room room, List<Furniture> pieces) {
+        long startTime = System.nanoTime();
+        LayoutRuleSet rules = layoutRules.current();
+        int clearance = rules.getWallClearanceMm();
+        FloorPlan plan = room.getFloorPlan();
+        RoomLayout layout = new RoomLayout();
+        
+        // Take pieces in request order while the budget lasts
+        List<Furniture> accepted = new ArrayList<>(pieces.size());
+        Map<String, Integer> overBudget = new LinkedHashMap<>();
+        long cost = 0;
+        for (Furniture furniture : pieces) {
+            if (cost + furniture.getPrice() > room.getBudget()) {
+                overBudget.merge(furniture.getName(), 1, Integer::sum);
+                continue;
+            }
+            cost += furniture.getPrice();
+            accepted.add(furniture);
+        }
+        
+        // Packed boxes: the piece plus its own margin and the largest margin on the right and top
+        int n = accepted.size();
+        int[] boxWidth = new int[n];
+        int[] boxDepth = new int[n];
+        int largestSide = 0;
+        for (int i = 0; i < n; i++) {
+            Furniture furniture = accepted.get(i);
+            int gap = rules.marginMmOf(furniture) + rules.getMaxMarginMm();
+            boxWidth[i] = furniture.getWidthMm() + gap;
+            boxDepth[i] = furniture.getDepthMm() + gap;
+            largestSide = Math.max(largestSide, Math.max(boxWidth[i], boxDepth[i]));
+        }
+        
+        int tileSide = Math.max(Millimetres.fromMeters(tileSize), 2 * largestSide);
+        Tile[] tiles = buildTiles(plan, rules, tileSide);
+        
+        // Largest boxes first, each to the tile with the most unclaimed floor
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> -(long) boxWidth[i] * boxDepth[i]).thenComparingInt(i -> i));
+        PriorityQueue<Tile> emptiest = new PriorityQueue<>(Comparator.comparingLong((Tile t) -> -t.unclaimed)
+                .thenComparingInt(t -> t.index));
+        emptiest.addAll(Arrays.asList(tiles));
+        for (int i : order) {
+            Tile tile = emptiest.poll();
+            tile.assign(i);
+            tile.unclaimed -= (long) boxWidth[i] * boxDepth[i];
+            emptiest.add(tile);
+        }
+        
+        // Tiles are independent; pack them in parallel
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(tiles.length);
+        for (Tile tile : tiles) {
+            tasks.add(pool.submit(() -> tile.pack(boxWidth, boxDepth)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        
+        // Stitch: offer every leftover, largest first, to the tiles with the most free floor
+        List<Integer> leftovers = new ArrayList<>();
+        for (Tile tile : tiles) {
+            for (int k = 0; k < tile.leftoverCount; k++) {
+                leftovers.add(tile.leftovers[k]);
+            }
+        }
+        leftovers.sort(Comparator.comparingLong((Integer i) -> -(long) boxWidth[i] * boxDepth[i]).thenComparingInt(i -> i));
+        Tile[] byFreeFloor = tiles.clone();
+        Arrays.sort(byFreeFloor, Comparator.comparingLong((Tile t) -> -t.free).thenComparingInt(t -> t.index));
+        int spilled = 0;
+        Map<String, Integer> noSpace = new LinkedHashMap<>();
+        for (int i : leftovers) {
+            boolean placed = false;
+            for (Tile tile : byFreeFloor) {
+                if (tile.insert(i, boxWidth[i], boxDepth[i])) {
+                    placed = true;
+                    spilled++;
+                    break;
+                }
+            }
+            if (!placed) {
+                noSpace.merge(accepted.get(i).getName(), 1, Integer::sum);
+            }
+        }
+        
+        // Seam check: one sweep over all boxes; a piece closer than its gap to an earlier one is dropped
+        List<FurniturePosition> positions = new ArrayList<>(n);
+        SweepLineValidator validator = new SweepLineValidator(clearance, clearance,
+                plan.getLength() - clearance, plan.getWidth() - clearance);
+        for (Tile tile : tiles) {
+            for (int k = 0; k < tile.placedCount; k++) {
+                Furniture furniture = accepted.get(tile.placed[k]);
+                FurniturePosition position = FurniturePosition.ofMillimetres(furniture,
+                        MaxRectsPacker.cornerX(tile.corners[k]), MaxRectsPacker.cornerY(tile.corners[k]),
+                        tile.rotations[k]);
+                validator.add(position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm(),
+                        rules.marginMmOf(furniture));
+                positions.add(position);
+            }
+        }
+        SweepLineValidator.Result check = validator.validate();
+        boolean[] dropped = new boolean[positions.size()];
+        for (int id : check.getOutOfBounds()) {
+            dropped[id] = true;
+        }
+        for (int[] pair : check.getCollisions()) {
+            if (!dropped[pair[0]]) {
+                dropped[pair[1]] = true;
+            }
+        }
+        List<FurniturePosition> kept = new ArrayList<>(positions.size());
+        int totalCost = 0;
+        int seamConflicts = 0;
+        for (int id = 0; id < positions.size(); id++) {
+            FurniturePosition position = positions.get(id);
+            if (dropped[id]) {
+                seamConflicts++;
+                noSpace.merge(position.getFurniture().getName(), 1, Integer::sum);
+                continue;
+            }
+            kept.add(position);
+            totalCost += position.getFurniture().getPrice();
+        }
+        
+        layout.setFurniture(kept);
+        layout.setTotalCost(totalCost);
+        overBudget.forEach((name, count) -> layout.addWarning(LayoutWarning.BUDGET_LIMIT_COUNT, count + " × " + name));
+        noSpace.forEach((name, count) -> layout.addWarning(LayoutWarning.NO_FREE_SPACE_COUNT, count + " × " + name));
+        if (kept.isEmpty()) {
+            layout.addWarning(LayoutWarning.NOTHING_PLACED, null);
+        }
+        layout.setReasoning("Generated locally for a large space: the floor was split into " + tiles.length +
+                " tiles packed in parallel, largest pieces first, while keeping wall clearance and walking gaps.");
+        
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        layout.putMetadata("tiles", tiles.length);
+        layout.putMetadata("tileSize", Millimetres.toMeters(tileSide));
+        layout.putMetadata("parallelism", pool.getParallelism());
+        layout.putMetadata("piecesRequested", pieces.size());
+        layout.putMetadata("piecesPlaced", kept.size());
+        layout.putMetadata("piecesSpilled", spilled);
+        layout.putMetadata("seamConflicts", seamConflicts);
+        layout.putMetadata("placementTimeMs", elapsedMs);
+        logger.debug("Placed {} of {} pieces on {} tiles in {}ms ({} moved across seams, {} seam conflicts)",
+                kept.size(), pieces.size(), tiles.length, elapsedMs, spilled, seamConflicts);
+        return layout;
+    }
+    
+    /**
+     * Cut the usable floor into a grid of tiles of at least the given side
+     * The side is at least twice the largest box, so any piece fits a tile. The tiles along the far walls reach past the clearance line by the largest plus the smallest
+     * margin, as the local solver's bin does; obstacles of a shaped room are occupied in every tile
+     */
+    private Tile[] buildTiles(FloorPlan plan, LayoutRuleSet rules, int tileSide) {
+        int clearance = rules.getWallClearanceMm();
+        int extension = rules.getMaxMarginMm() + rules.getMinMarginMm();
+        int usableX = Math.max(0, plan.getLength() - 2 * clearance);
+        int usableY = Math.max(0, plan.getWidth() - 2 * clearance);
+        int columns = Math.max(1, usableX / Math.max(1, tileSide));
+        int rows = Math.max(1, usableY / Math.max(1, tileSide));
+        List<int[]> obstacles = plan.obstacles(clearance);
+        
+        Tile[] tiles = new Tile[columns * rows];
+        for (int r = 0; r < rows; r++) {
+            int minY = clearance + (int) ((long) usableY * r / rows);
+            int maxY = r == rows - 1 ? clearance + usableY + extension : clearance + (int) ((long) usableY * (r + 1) / rows);
+            for (int c = 0; c < columns; c++) {
+                int minX = clearance + (int) ((long) usableX * c / columns);
+                int maxX = c == columns - 1 ? clearance + usableX + extension : clearance + (int) ((long) usableX * (c + 1) / columns);
+                Tile tile = new Tile(r * columns + c, minX, minY, maxX, maxY);
+                for (int[] obstacle : obstacles) {
+                    tile.block(obstacle);
+                }
+                tiles[tile.index] = tile;
+            }
+        }
+        return tiles;
+    }
+    
+    /**
+     * One tile: its packer, the pieces assigned to it and the results
+     * Packed by one thread at a time; pieces are referred to by their index in the accepted list
+     */
+    private static final class Tile {
+        final int index;
+        final int minX;
+        final int minY;
+        final int maxX;
+        final int maxY;
+        final MaxRectsPacker packer;
+        long unclaimed;  // Floor in mm² not yet claimed by assigned boxes; may go negative
+        long free;       // Floor in mm² not covered by obstacles or placed boxes
+        
+        int[] assigned = new int[8];
+        int assignedCount;
+        int[] placed = new int[8];
+        long[] corners = new long[8];
+        int[] rotations = new int[8];
+        int placedCount;
+        int[] leftovers = new int[8];
+        int leftoverCount;
+        
+        // Smallest box known not to fit, both orientations tried; larger boxes are not tried again
+        int failedWidth = Integer.MAX_VALUE;
+        int failedDepth = Integer.MAX_VALUE;
+        
+        Tile(int index, int minX, int minY, int maxX, int maxY) {
+            this.index = index;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.packer = new MaxRectsPacker(minX, minY, maxX, maxY);
+            this.free = (long) (maxX - minX) * (maxY - minY);
+            this.unclaimed = free;
+        }
+        
+        /**
+         * Occupy the part of an obstacle {minX, minY, maxX, maxY} that falls in this tile
+         */
+        void block(int[] obstacle) {
+            int x0 = Math.max(minX, obstacle[0]);
+            int y0 = Math.max(minY, obstacle[1]);
+            int x1 = Math.min(maxX, obstacle[2]);
+            int y1 = Math.min(maxY, obstacle[3]);
+            if (x0 < x1 && y0 < y1) {
+                packer.occupy(x0, y0, x1 - x0, y1 - y0);
+                free -= (long) (x1 - x0) * (y1 - y0);
+                unclaimed = free;
+            }
+        }
+        
+        void assign(int piece) {
+            if (assignedCount == assigned.length) {
+                assigned = Arrays.copyOf(assigned, assignedCount * 2);
+            }
+            assigned[assignedCount++] = piece;
+        }
+        
+        /**
+         * Pack the assigned pieces in assignment order; those that do not fit become leftovers
+         */
+        void pack(int[] boxWidth, int[] boxDepth) {
+            for (int k = 0; k < assignedCount; k++) {
+                int piece = assigned[k];
+                if (!insert(piece, boxWidth[piece], boxDepth[piece])) {
+                    if (leftoverCount == leftovers.length) {
+                        leftovers = Arrays.copyOf(leftovers, leftoverCount * 2);
+                    }
+                    leftovers[leftoverCount++] = piece;
+                }
+            }
+        }
+        
+        /**
+         * Place one box, turned a quarter if it does not fit as it is
+         */
+        boolean insert(int piece, int width, int depth) {
+            if ((width >= failedWidth && depth >= failedDepth) || (depth >= failedWidth && width >= failedDepth)) {
+                return false;
+            }
+            int rotation = 0;
+            long corner = packer.insert(width, depth);
+            if (corner == MaxRectsPacker.NO_FIT && width != depth) {
+                rotation = 90;
+                corner = packer.insert(depth, width);
+            }
+            if (corner == MaxRectsPacker.NO_FIT) {
+                if ((long) width * depth < (long) failedWidth * failedDepth) {
+                    failedWidth = width;
+                    failedDepth = depth;
+                }
+                return false;
+            }
+            if (placedCount == placed.length) {
+                placed = Arrays.copyOf(placed, placedCount * 2);
+                corners = Arrays.copyOf(corners, placedCount * 2);
+                rotations = Arrays.copyOf(rotations, placedCount * 2);
+            }
+            placed[placedCount] = piece;
+            corners[placedCount] = corner;
+            rotations[placedCount] = rotation;
+            placedCount++;
+            free -= (long) width * depth;
+            return true;
+        }
+    }
+}
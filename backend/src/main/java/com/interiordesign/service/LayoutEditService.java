@@ -0,0 +1,197 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.dao.FurnitureDAO;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutDelta;
+import com.interiordesign.model.LayoutEditRequest;
+import com.interiordesign.model.LayoutWarning;
+import com.interiordesign.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for single-item edits of an existing layout
+ * Revalidates only the edited piece with the rule engine; no AI call is made
+ */
+@Service
+public class LayoutEditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayoutEditService.class);
+
+    private final FurnitureDAO furnitureDAO;
+    private final RuleEngine ruleEngine;
+
+    public LayoutEditService(FurnitureDAO furnitureDAO, RuleEngine ruleEngine) {
+        this.furnitureDAO = furnitureDAO;
+        this.ruleEngine = ruleEngine;
+    }
+
+    /**
+     * Add one piece to the layout at the requested position, or the nearest valid one
+     * The piece takes the request's 'rotation', or the one in 'item' if that is absent
+     *
+     * @param request Room, current layout, the piece to add in 'item' and optional 'rotation'
+     * @return Delta describing the added piece
+     */
+    public LayoutDelta addFurniture(LayoutEditRequest request) {
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        Room room = request.getRoom();
+        List<FurniturePosition> existing = resolveLayout(request.getFurniture(), catalog);
+        FurniturePosition item = requireItem(request, "add");
+        Furniture furniture = resolveFurniture(item.getFurniture(), catalog);
+
+        int currentCost = totalCost(existing);
+        LayoutDelta delta = new LayoutDelta("add", existing.size());
+        delta.setTotalCost(currentCost);
+
+        if (currentCost + furniture.getPrice() > room.getBudget()) {
+            logger.info("Budget exceeded, cannot add {} (${})", furniture.getName(), furniture.getPrice());
+            delta.addWarning(LayoutWarning.BUDGET_LIMIT, furniture.getName());
+            return delta;
+        }
+
+        int rotation = request.getRotation() != null
+                ? FurniturePosition.normalizeRotation(request.getRotation())
+                : item.getRotation();
+        FurniturePosition position = new FurniturePosition(furniture, item.getX(), item.getY(), rotation);
+        if (!ruleEngine.placeSingle(room, existing, position)) {
+            delta.addWarning(LayoutWarning.NOT_PLACED, furniture.getName());
+            return delta;
+        }
+
+        delta.setPosition(position);
+        delta.setApplied(true);
+        delta.setAdjusted(isAdjusted(position, item, rotation));
+        delta.setTotalCost(currentCost + furniture.getPrice());
+        logger.info("Added {} at ({}, {}), adjusted: {}",
+                furniture.getName(), position.getX(), position.getY(), delta.isAdjusted());
+        return delta;
+    }
+
+    /**
+     * Move one piece of the layout to the requested position, or the nearest valid one
+     * The piece keeps its old position if no valid position is found, and its old rotation
+     * unless the request carries a 'rotation'
+     *
+     * @param request Room, current layout, index of the piece, its new position in 'item' and optional 'rotation'
+     * @return Delta describing the moved piece
+     */
+    public LayoutDelta moveFurniture(LayoutEditRequest request) {
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        List<FurniturePosition> existing = resolveLayout(request.getFurniture(), catalog);
+        int index = requireIndex(request.getIndex(), existing.size());
+        FurniturePosition item = requireItem(request, "move");
+
+        List<FurniturePosition> others = new ArrayList<>(existing);
+        FurniturePosition current = others.remove(index);
+
+        LayoutDelta delta = new LayoutDelta("move", index);
+        delta.setTotalCost(totalCost(existing));
+
+        int rotation = request.getRotation() != null
+                ? FurniturePosition.normalizeRotation(request.getRotation())
+                : current.getRotation();
+        FurniturePosition position = new FurniturePosition(current.getFurniture(), item.getX(), item.getY(), rotation);
+        if (!ruleEngine.placeSingle(request.getRoom(), others, position)) {
+            delta.setPosition(current);
+            delta.addWarning(LayoutWarning.NOT_PLACED, current.getFurniture().getName());
+            return delta;
+        }
+
+        delta.setPosition(position);
+        delta.setApplied(true);
+        delta.setAdjusted(isAdjusted(position, item, rotation));
+        logger.info("Moved {} to ({}, {}), adjusted: {}",
+                current.getFurniture().getName(), position.getX(), position.getY(), delta.isAdjusted());
+        return delta;
+    }
+
+    /**
+     * Remove one piece from the layout
+     *
+     * @param request Room, current layout and index of the piece to remove
+     * @return Delta carrying the removed piece
+     */
+    public LayoutDelta removeFurniture(LayoutEditRequest request) {
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        List<FurniturePosition> existing = resolveLayout(request.getFurniture(), catalog);
+        int index = requireIndex(request.getIndex(), existing.size());
+        FurniturePosition removed = existing.get(index);
+
+        LayoutDelta delta = new LayoutDelta("remove", index);
+        delta.setPosition(removed);
+        delta.setApplied(true);
+        delta.setTotalCost(totalCost(existing) - removed.getFurniture().getPrice());
+        logger.info("Removed {} from index {}", removed.getFurniture().getName(), index);
+        return delta;
+    }
+
+    /**
+     * Copy the client's layout, replacing each piece's furniture with the catalog entry
+     * so dimensions and prices cannot be altered by the client
+     */
+    private List<FurniturePosition> resolveLayout(List<FurniturePosition> furniture, CatalogSnapshot catalog) {
+        List<FurniturePosition> resolved = new ArrayList<>(furniture.size());
+        for (FurniturePosition position : furniture) {
+            if (position == null) {
+                throw new IllegalArgumentException("Layout contains an empty furniture entry");
+            }
+            resolved.add(new FurniturePosition(resolveFurniture(position.getFurniture(), catalog),
+                    position.getX(), position.getY(), position.getRotation()));
+        }
+        return resolved;
+    }
+
+    /**
+     * Find the catalog entry for a piece by id, or by name when no id is given
+     *
+     * @throws IllegalArgumentException if the piece is not in the catalog
+     */
+    private Furniture resolveFurniture(Furniture furniture, CatalogSnapshot catalog) {
+        if (furniture == null) {
+            throw new IllegalArgumentException("Furniture is required for every layout entry");
+        }
+        Furniture resolved = furniture.getId() != null
+                ? catalog.findById(furniture.getId())
+                : catalog.findByName(furniture.getName());
+        if (resolved == null) {
+            throw new IllegalArgumentException("Furniture '" +
+                    (furniture.getId() != null ? furniture.getId() : furniture.getName()) + "' not found in catalog");
+        }
+        return resolved;
+    }
+
+    private FurniturePosition requireItem(LayoutEditRequest request, String operation) {
+        if (request.getItem() == null) {
+            throw new IllegalArgumentException("The " + operation + " operation requires an 'item'");
+        }
+        return request.getItem();
+    }
+
+    private int requireIndex(Integer index, int size) {
+        if (index == null || index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index " + index + " is out of range for a layout of " +
+                    size + " items");
+        }
+        return index;
+    }
+
+    private boolean isAdjusted(FurniturePosition position, FurniturePosition requested, int requestedRotation) {
+        return position.getX() != requested.getX() || position.getY() != requested.getY() ||
+               position.getRotation() != requestedRotation;
+    }
+
+    private int totalCost(List<FurniturePosition> furniture) {
+        int total = 0;
+        for (FurniturePosition position : furniture) {
+            total += position.getFurniture().getPrice();
+        }
+        return total;
+    }
+}
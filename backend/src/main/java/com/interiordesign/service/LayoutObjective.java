@@ -0,0 +1,20 @@
+package com.interiordesign.service;
+
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+
+/**
+ * Scores a candidate layout; higher is better
+ * Implementations must be thread-safe, candidates are scored concurrently
+ */
+public interface LayoutObjective {
+    
+    /**
+     * Score a validated layout for the given room
+     * 
+     * @param room Room specifications
+     * @param layout Candidate layout
+     * @return Score where higher means a better layout
+     */
+    double score(Room room, RoomLayout layout);
+}
@@ -0,0 +1,622 @@
+package com.interiordesign.service;
+
+import com.interiordesign.geometry.CollisionKernel;
+import com.interiordesign.geometry.FloorPlan;
+import com.interiordesign.geometry.Millimetres;
+import com.interiordesign.geometry.OccupancyBitmap;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutWarning;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Anytime optimizer applied after a layout has been generated
+ * Runs independent simulated annealing chains on the shared solver pool until a deadline and keeps
+ * the best layout found. Moves shift, turn, add or remove one piece; a move that breaks wall clearance,
+ * a category gap or the budget is rejected, so every state visited is a valid layout
+ * Chains keep their working layout in primitive arrays and allocate nothing per move; each piece's
+ * nearest neighbour is tracked incrementally, so a shift or turn costs O(n) instead of O(n²)
+ * Gap checks run through {@link CollisionKernel} over those arrays, on SIMD lanes when available;
+ * coordinates are whole millimetres, so a state is accepted or rejected the same way on every run
+ */
+@Component
+public class LayoutRefiner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LayoutRefiner.class);
+    
+    private static final int GRID = 10;                  // Positions are snapped to whole centimeters, in mm
+    private static final double START_TEMPERATURE = 1.0; // In objective units; a removal costs about 10
+    private static final double END_TEMPERATURE = 0.001;
+    private static final int CLOCK_CHECK_INTERVAL = 256; // Moves between deadline checks
+    private static final int ADD_CANDIDATES = 8;         // Random positions tested in one batch per add move
+    
+    private final WeightedLayoutObjective objective;
+    private final LocalLayoutSolver localSolver;
+    private final LayoutRules layoutRules;
+    private final ForkJoinPool pool;
+    private final int chains;
+    
+    @Value("${layout.refine.time-budget-ms:200}")
+    private long timeBudgetMs = 200;
+    
+    @Value("${layout.occupancy.resolution:0.01}")
+    private double occupancyResolution = 0.01;  // Raster of a shaped room's floor, shared with the rule engine
+    
+    public LayoutRefiner(WeightedLayoutObjective objective, LocalLayoutSolver localSolver, LayoutRules layoutRules,
+                         ForkJoinPool solverPool, @Value("${layout.refine.chains:0}") int chains) {
+        this.objective = objective;
+        this.localSolver = localSolver;
+        this.layoutRules = layoutRules;
+        this.pool = solverPool;
+        this.chains = chains > 0 ? chains : solverPool.getParallelism();
+        logger.info("Layout refiner: {} chains, {} collision kernel ({} lanes)", this.chains,
+                CollisionKernel.isVectorized() ? "vector" : "scalar", CollisionKernel.laneCount());
+    }
+    
+    /**
+     * Improve a layout until the time budget runs out
+     * 
+     * @param room Room specifications
+     * @param layout Validated layout to start from; returned unchanged if nothing better is found
+     * @param candidates Catalog rows that may be added, at most one per category not yet in the layout
+     * @return Best layout found, with refine statistics in its metadata
+     */
+    public RoomLayout refine(Room room, RoomLayout layout, CatalogPruner.Result candidates) {
+        long startTime = System.nanoTime();
+        long deadline = startTime + timeBudgetMs * 1_000_000;
+        
+        // Pool of pieces: the placed ones first, then one addable item per missing category
+        // (single items only; a furniture set covers the categories of all its members)
+        List<FurniturePosition> start = layout.getFurniture();
+        Set<String> usedCategories = new HashSet<>();
+        for (FurniturePosition position : start) {
+            usedCategories.addAll(LocalLayoutSolver.categoriesOf(position.getFurniture()));
+        }
+        List<Furniture> extras = new ArrayList<>();
+        for (Furniture furniture : localSolver.selectionOrder(candidates.getColumns(), candidates.getRows())) {
+            if (!(furniture instanceof FurnitureGroup) && !usedCategories.contains(furniture.getCategory())) {
+                extras.add(furniture);
+            }
+        }
+        
+        Object adjusted = layout.getMetadata().get(RuleEngine.METADATA_ADJUSTED_PLACEMENTS);
+        int adjustments = adjusted instanceof Number ? ((Number) adjusted).intValue() : 0;
+        
+        LayoutRuleSet rules = layoutRules.current();
+        
+        // A shaped room's blocked cells, read by every chain; null for a plain rectangle
+        FloorPlan plan = room.getFloorPlan();
+        OccupancyBitmap floor = plan.isRectangle() ? null : plan.blockedCells(
+                Math.max(1, Millimetres.fromMeters(occupancyResolution)), rules.getWallClearanceMm());
+        
+        List<ForkJoinTask<Chain>> tasks = new ArrayList<>(chains);
+        for (int c = 0; c < chains; c++) {
+            Chain chain = new Chain(room, rules, floor, start, extras, adjustments, c);
+            tasks.add(pool.submit(() -> {
+                chain.run(deadline);
+                return chain;
+            }));
+        }
+        
+        Chain best = null;
+        long iterations = 0;
+        for (ForkJoinTask<Chain> task : tasks) {
+            Chain chain = task.join();
+            iterations += chain.iterations;
+            if (best == null || chain.bestEnergy > best.bestEnergy) {
+                best = chain;  // Ties go to the lowest chain index
+            }
+        }
+        
+        double improvement = best.bestEnergy - best.initialEnergy;
+        RoomLayout result = improvement > 1e-9 ? best.toLayout(layout) : layout;
+        result.putMetadata("refineChains", chains);
+        result.putMetadata("refineIterations", iterations);
+        result.putMetadata("refineImprovement", Math.round(Math.max(0, improvement) * 100) / 100.0);
+        result.putMetadata("refineTimeMs", (System.nanoTime() - startTime) / 1_000_000);
+        if (improvement > 1e-9) {
+            result.putMetadata("score", Math.round(best.bestEnergy * 100) / 100.0);
+        }
+        logger.debug("Refined layout with {} chains: {} moves, objective +{}",
+                chains, iterations, Math.max(0, improvement));
+        return result;
+    }
+    
+    /**
+     * One annealing chain
+     * Slots [0, count) hold the placed pieces, slots [count, size) the pieces not in the layout
+     */
+    private final class Chain {
+        private final Room room;
+        private final int adjustments;
+        private final SplittableRandom random;
+        private final int usableMinX;
+        private final int usableMinY;
+        private final int usableMaxX;
+        private final int usableMaxY;
+        private final FloorPlan plan;
+        private final OccupancyBitmap floor;  // Blocked cells of a shaped room, null for a rectangle
+        private final int clearance;
+        private final double defaultGap;      // Reference for the clearance term of the objective
+        private final double clearanceCapSq;
+        
+        private final int size;
+        private final Furniture[] furniture;
+        private final int[] price;
+        private final int[] pieces;        // Catalog pieces per slot (members of a furniture set)
+        private final double[] area;
+        private final int[] margin;        // Category margin; two pieces keep the sum of theirs apart
+        private final int[] minX;          // Boxes in millimetres
+        private final int[] minY;
+        private final int[] maxX;
+        private final int[] maxY;
+        private final int[] rotation;
+        private final double[] nearestSq;  // Squared distance to the nearest placed piece, capped
+        private final int[] nearest;       // Slot of that piece, -1 if none within the cap
+        private int count;
+        private int pieceCount;
+        private int totalCost;
+        private double occupiedArea;
+        private double energy;
+        
+        // Scratch for undoing a rejected move
+        private final double[] savedNearestSq;
+        private final int[] savedNearest;
+        private final int[] stale;
+        
+        // Candidate positions for an add move, tested as one batch
+        private final int[] candMinX = new int[ADD_CANDIDATES];
+        private final int[] candMinY = new int[ADD_CANDIDATES];
+        private final int[] candMaxX = new int[ADD_CANDIDATES];
+        private final int[] candMaxY = new int[ADD_CANDIDATES];
+        private final boolean[] candHits = new boolean[ADD_CANDIDATES];
+        
+        // Best state seen, copied on improvement only
+        private final Furniture[] bestFurniture;
+        private final int[] bestX;
+        private final int[] bestY;
+        private final int[] bestRotation;
+        private int bestCount;
+        private final double initialEnergy;
+        private double bestEnergy;
+        private long iterations;
+        
+        Chain(Room room, LayoutRuleSet rules, OccupancyBitmap floor, List<FurniturePosition> placed,
+              List<Furniture> extras, int adjustments, int index) {
+            this.room = room;
+            this.adjustments = adjustments;
+            this.random = new SplittableRandom(index);
+            this.usableMinX = rules.getWallClearanceMm();
+            this.usableMinY = rules.getWallClearanceMm();
+            this.usableMaxX = room.getLengthMm() - rules.getWallClearanceMm();
+            this.usableMaxY = room.getWidthMm() - rules.getWallClearanceMm();
+            this.plan = room.getFloorPlan();
+            this.floor = floor;
+            this.clearance = rules.getWallClearanceMm();
+            this.defaultGap = rules.getDefaultGap();
+            this.clearanceCapSq = WeightedLayoutObjective.clearanceCapSq(defaultGap);
+            
+            this.size = placed.size() + extras.size();
+            this.furniture = new Furniture[size];
+            this.price = new int[size];
+            this.pieces = new int[size];
+            this.area = new double[size];
+            this.margin = new int[size];
+            this.minX = new int[size];
+            this.minY = new int[size];
+            this.maxX = new int[size];
+            this.maxY = new int[size];
+            this.rotation = new int[size];
+            this.nearestSq = new double[size];
+            this.nearest = new int[size];
+            this.savedNearestSq = new double[size];
+            this.savedNearest = new int[size];
+            this.stale = new int[size];
+            this.bestFurniture = new Furniture[size];
+            this.bestX = new int[size];
+            this.bestY = new int[size];
+            this.bestRotation = new int[size];
+            
+            for (int i = 0; i < size; i++) {
+                boolean isPlaced = i < placed.size();
+                FurniturePosition position = isPlaced ? placed.get(i) : null;
+                furniture[i] = isPlaced ? position.getFurniture() : extras.get(i - placed.size());
+                price[i] = furniture[i].getPrice();
+                pieces[i] = WeightedLayoutObjective.pieceCount(furniture[i]);
+                area[i] = WeightedLayoutObjective.footprintArea(furniture[i]);
+                margin[i] = rules.marginMmOf(furniture[i]);
+                rotation[i] = isPlaced ? position.getRotation() : 0;
+                setPosition(i, isPlaced ? position.getXMm() : 0, isPlaced ? position.getYMm() : 0);
+                if (isPlaced) {
+                    pieceCount += pieces[i];
+                    totalCost += price[i];
+                    occupiedArea += area[i];
+                }
+            }
+            this.count = placed.size();
+            for (int i = 0; i < count; i++) {
+                recomputeNearest(i);
+            }
+            this.energy = computeEnergy();
+            this.initialEnergy = energy;
+            saveBest();
+        }
+        
+        /**
+         * Anneal until the deadline; the temperature falls geometrically with elapsed time
+         */
+        void run(long deadline) {
+            long startTime = System.nanoTime();
+            double span = Math.max(1, deadline - startTime);
+            double temperature = START_TEMPERATURE;
+            double maxStep = Math.max(room.getLengthMm(), room.getWidthMm()) / 2.0;
+            
+            while (true) {
+                if ((iterations & (CLOCK_CHECK_INTERVAL - 1)) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) {
+                        break;
+                    }
+                    temperature = START_TEMPERATURE *
+                            Math.pow(END_TEMPERATURE / START_TEMPERATURE, (now - startTime) / span);
+                }
+                iterations++;
+                
+                int move = random.nextInt(10);
+                if (move < 6) {
+                    shift(temperature, Math.max(GRID, maxStep * temperature / START_TEMPERATURE));
+                } else if (move < 8) {
+                    turn(temperature);
+                } else if (move < 9) {
+                    add(temperature);
+                } else {
+                    remove(temperature);
+                }
+            }
+        }
+        
+        private void shift(double temperature, double step) {
+            if (count == 0) {
+                return;
+            }
+            int i = random.nextInt(count);
+            int oldX = minX[i];
+            int oldY = minY[i];
+            setPosition(i, snap(oldX + (random.nextDouble() * 2 - 1) * step),
+                           snap(oldY + (random.nextDouble() * 2 - 1) * step));
+            if (!isValid(i)) {
+                setPosition(i, oldX, oldY);
+                return;
+            }
+            saveNearest();
+            updateNearestAfterMove(i);
+            if (!accept(computeEnergy(), temperature)) {
+                setPosition(i, oldX, oldY);
+                restoreNearest();
+            }
+        }
+        
+        private void turn(double temperature) {
+            if (count == 0) {
+                return;
+            }
+            int i = random.nextInt(count);
+            int oldRotation = rotation[i];
+            rotation[i] = (oldRotation + 90) % 360;
+            setPosition(i, minX[i], minY[i]);
+            if (!isValid(i)) {
+                rotation[i] = oldRotation;
+                setPosition(i, minX[i], minY[i]);
+                return;
+            }
+            saveNearest();
+            updateNearestAfterMove(i);
+            if (!accept(computeEnergy(), temperature)) {
+                rotation[i] = oldRotation;
+                setPosition(i, minX[i], minY[i]);
+                restoreNearest();
+            }
+        }
+        
+        private void add(double temperature) {
+            if (count == size) {
+                return;
+            }
+            int i = count + random.nextInt(size - count);
+            if (totalCost + price[i] > room.getBudget()) {
+                return;
+            }
+            rotation[i] = random.nextBoolean() ? 0 : 90;
+            setPosition(i, 0, 0);
+            int width = maxX[i];
+            int depth = maxY[i];
+            int lastX = usableMaxX - width;  // Largest x that keeps the piece inside the clearance line
+            int lastY = usableMaxY - depth;
+            if (lastX < usableMinX || lastY < usableMinY) {
+                return;  // Does not fit the usable floor in this orientation
+            }
+            // Draw several positions and keep the first clear one; in a crowded room most draws collide
+            for (int k = 0; k < ADD_CANDIDATES; k++) {
+                candMinX[k] = snap(usableMinX + random.nextDouble() * (lastX - usableMinX));
+                candMinY[k] = snap(usableMinY + random.nextDouble() * (lastY - usableMinY));
+                candMaxX[k] = candMinX[k] + width;
+                candMaxY[k] = candMinY[k] + depth;
+            }
+            int clear = CollisionKernel.firstClear(candMinX, candMinY, candMaxX, candMaxY, ADD_CANDIDATES, margin[i],
+                    usableMinX, usableMinY, usableMaxX, usableMaxY, minX, minY, maxX, maxY, margin, count, candHits);
+            while (clear >= 0 && !fitsFloor(candMinX[clear], candMinY[clear], candMaxX[clear], candMaxY[clear])) {
+                do {
+                    clear++;
+                } while (clear < ADD_CANDIDATES && candHits[clear]);
+                clear = clear < ADD_CANDIDATES ? clear : -1;
+            }
+            if (clear < 0) {
+                return;
+            }
+            setPosition(i, candMinX[clear], candMinY[clear]);
+            
+            swapSlots(i, count);
+            count++;
+            pieceCount += pieces[count - 1];
+            totalCost += price[count - 1];
+            occupiedArea += area[count - 1];
+            saveNearest();
+            updateNearestAfterMove(count - 1);  // A new piece can only bring others' nearest closer
+            if (!accept(computeEnergy(), temperature)) {
+                count--;
+                pieceCount -= pieces[count];
+                totalCost -= price[count];
+                occupiedArea -= area[count];
+                restoreNearest();
+            }
+        }
+        
+        /**
+         * Outline and keep-out test of a shaped room: the shared raster first, the exact test when a
+         * box sits on cells the raster rounds away
+         */
+        private boolean fitsFloor(int x0, int y0, int x1, int y1) {
+            return floor == null || floor.isFree(x0, y0, x1, y1) || plan.fits(x0, y0, x1, y1, clearance);
+        }
+        
+        private void remove(double temperature) {
+            if (count == 0) {
+                return;
+            }
+            int i = random.nextInt(count);
+            saveNearest();
+            swapSlots(i, count - 1);
+            count--;
+            pieceCount -= pieces[count];
+            totalCost -= price[count];
+            occupiedArea -= area[count];
+            for (int j = 0; j < count; j++) {
+                if (nearest[j] == count) {
+                    recomputeNearest(j);
+                }
+            }
+            if (!accept(computeEnergy(), temperature)) {
+                count++;
+                pieceCount += pieces[count - 1];
+                totalCost += price[count - 1];
+                occupiedArea += area[count - 1];
+                swapSlots(i, count - 1);
+                restoreNearest();
+            }
+        }
+        
+        /**
+         * Metropolis rule; updates the current and best energy when the move is kept
+         */
+        private boolean accept(double candidate, double temperature) {
+            double delta = candidate - energy;
+            if (delta < 0 && random.nextDouble() >= Math.exp(delta / temperature)) {
+                return false;
+            }
+            energy = candidate;
+            if (energy > bestEnergy) {
+                saveBest();
+            }
+            return true;
+        }
+        
+        /**
+         * Check wall clearance and the furniture gap for one placed slot
+         */
+        private boolean isValid(int i) {
+            if (!CollisionKernel.inside(minX[i], minY[i], maxX[i], maxY[i],
+                                        usableMinX, usableMinY, usableMaxX, usableMaxY) ||
+                !fitsFloor(minX[i], minY[i], maxX[i], maxY[i])) {
+                return false;
+            }
+            // Every other slot, in the two runs before and after i
+            return CollisionKernel.firstCollision(minX[i], minY[i], maxX[i], maxY[i], margin[i],
+                           minX, minY, maxX, maxY, margin, 0, i) < 0 &&
+                   CollisionKernel.firstCollision(minX[i], minY[i], maxX[i], maxY[i], margin[i],
+                           minX, minY, maxX, maxY, margin, i + 1, count) < 0;
+        }
+        
+        private double computeEnergy() {
+            double clearanceShare = count;
+            if (count >= 2) {
+                double total = 0;
+                for (int i = 0; i < count; i++) {
+                    total += WeightedLayoutObjective.spareClearance(nearestSq[i], defaultGap);
+                }
+                clearanceShare = total / (count * WeightedLayoutObjective.CLEARANCE_CAP);
+            }
+            return objective.score(room, pieceCount, totalCost, occupiedArea, clearanceShare, adjustments);
+        }
+        
+        /**
+         * Find the nearest placed neighbour of slot i from scratch
+         */
+        private void recomputeNearest(int i) {
+            double best = clearanceCapSq;
+            int bestSlot = -1;
+            for (int j = 0; j < count; j++) {
+                if (j != i) {
+                    double distance = WeightedLayoutObjective.distanceSq(minX, minY, maxX, maxY, i, j);
+                    if (distance < best) {
+                        best = distance;
+                        bestSlot = j;
+                    }
+                }
+            }
+            nearestSq[i] = best;
+            nearest[i] = bestSlot;
+        }
+        
+        /**
+         * Update nearest neighbours after slot i moved or was placed
+         * Only pieces whose nearest neighbour was i and moved away need a full rescan
+         */
+        private void updateNearestAfterMove(int i) {
+            double best = clearanceCapSq;
+            int bestSlot = -1;
+            int staleCount = 0;
+            for (int j = 0; j < count; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double distance = WeightedLayoutObjective.distanceSq(minX, minY, maxX, maxY, i, j);
+                if (distance < best) {
+                    best = distance;
+                    bestSlot = j;
+                }
+                if (distance <= nearestSq[j]) {
+                    nearestSq[j] = distance;
+                    nearest[j] = i;
+                } else if (nearest[j] == i) {
+                    stale[staleCount++] = j;
+                }
+            }
+            nearestSq[i] = best;
+            nearest[i] = bestSlot;
+            for (int k = 0; k < staleCount; k++) {
+                recomputeNearest(stale[k]);
+            }
+        }
+        
+        private void saveNearest() {
+            System.arraycopy(nearestSq, 0, savedNearestSq, 0, size);
+            System.arraycopy(nearest, 0, savedNearest, 0, size);
+        }
+        
+        private void restoreNearest() {
+            System.arraycopy(savedNearestSq, 0, nearestSq, 0, size);
+            System.arraycopy(savedNearest, 0, nearest, 0, size);
+        }
+        
+        private void setPosition(int i, int x, int y) {
+            boolean quarterTurned = rotation[i] == 90 || rotation[i] == 270;
+            minX[i] = x;
+            minY[i] = y;
+            maxX[i] = x + (quarterTurned ? furniture[i].getDepthMm() : furniture[i].getWidthMm());
+            maxY[i] = y + (quarterTurned ? furniture[i].getWidthMm() : furniture[i].getDepthMm());
+        }
+        
+        private void swapSlots(int a, int b) {
+            if (a == b) {
+                return;
+            }
+            Furniture piece = furniture[a];
+            furniture[a] = furniture[b];
+            furniture[b] = piece;
+            swap(price, a, b);
+            swap(pieces, a, b);
+            swap(rotation, a, b);
+            swap(area, a, b);
+            swap(margin, a, b);
+            swap(minX, a, b);
+            swap(minY, a, b);
+            swap(maxX, a, b);
+            swap(maxY, a, b);
+            swap(nearestSq, a, b);
+            swap(nearest, a, b);
+            for (int k = 0; k < size; k++) {
+                if (nearest[k] == a) {
+                    nearest[k] = b;
+                } else if (nearest[k] == b) {
+                    nearest[k] = a;
+                }
+            }
+        }
+        
+        private void saveBest() {
+            bestEnergy = energy;
+            bestCount = count;
+            System.arraycopy(furniture, 0, bestFurniture, 0, count);
+            System.arraycopy(minX, 0, bestX, 0, count);
+            System.arraycopy(minY, 0, bestY, 0, count);
+            System.arraycopy(rotation, 0, bestRotation, 0, count);
+        }
+        
+        /**
+         * Build the best layout found, keeping the original's reasoning, warnings and metadata
+         * Warnings about pieces that ended up placed are dropped
+         */
+        RoomLayout toLayout(RoomLayout original) {
+            RoomLayout layout = new RoomLayout();
+            layout.setReasoning(original.getReasoning());
+            layout.getMetadata().putAll(original.getMetadata());
+            
+            List<FurniturePosition> positions = new ArrayList<>(bestCount);
+            int cost = 0;
+            for (int i = 0; i < bestCount; i++) {
+                positions.add(FurniturePosition.ofMillimetres(bestFurniture[i], bestX[i], bestY[i], bestRotation[i]));
+                cost += bestFurniture[i].getPrice();
+            }
+            layout.setFurniture(positions);
+            layout.setTotalCost(cost);
+            
+            for (int w = 0; w < original.getWarningCount(); w++) {
+                LayoutWarning code = original.getWarningCode(w);
+                String subject = original.getWarningSubject(w);
+                boolean resolved = bestCount > 0 && code == LayoutWarning.NOTHING_PLACED;
+                if (code.namesPiece()) {
+                    for (int i = 0; i < bestCount && !resolved; i++) {
+                        resolved = bestFurniture[i].getName().equals(subject);
+                    }
+                }
+                if (!resolved) {
+                    layout.addWarning(code, subject);
+                }
+            }
+            return layout;
+        }
+    }
+    
+    private static void swap(int[] values, int a, int b) {
+        int value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+    
+    private static void swap(double[] values, int a, int b) {
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+    
+    /**
+     * Round a millimetre coordinate to the nearest grid line
+     */
+    private static int snap(double value) {
+        return (int) Math.round(value / GRID) * GRID;
+    }
+}
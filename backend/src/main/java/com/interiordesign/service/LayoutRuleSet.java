@@ -0,0 +1,371 @@
+package com.interiordesign.service;
+
+import com.interiordesign.geometry.FloorPlan;
+import com.interiordesign.geometry.Millimetres;
+import com.interiordesign.geometry.SpatialGrid;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutRule;
+import com.interiordesign.model.LayoutViolation;
+import com.interiordesign.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of the layout rules
+ * Categories are numbered once at compile time; per-category margins and adjacency checks sit in
+ * flat arrays indexed by that number, and each adjacency rule is a lambda over flat box arrays,
+ * so evaluating a layout involves no rule parsing and at most one category lookup per piece
+ * Two pieces must be at least the sum of their margins apart; a category's margin is half its gap
+ * Clearance, margins and adjacency distances are compiled to whole millimetres for the geometry
+ * kernel; the meter values are kept for prompts and messages
+ */
+public final class LayoutRuleSet {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LayoutRuleSet.class);
+    
+    private static final int GRID_CELL_MM = 1_000;  // Cell of the adjacency index, about one piece
+    
+    private final long version;  // Increases by one with every compiled change of the rules
+    private final double wallClearance;
+    private final int wallClearanceMm;
+    private final double defaultGap;
+    private final List<LayoutRule> rules;
+    private final Map<String, Integer> categoryIds;  // Lower-cased category -> dense id
+    private final int[] margins;                     // By category id, in millimetres
+    private final AdjacencyCheck[][] checks;         // By category id
+    private final int defaultMargin;
+    private final int minMargin;
+    private final int maxMargin;
+    
+    /**
+     * Soft rule evaluated on a finished layout
+     */
+    @FunctionalInterface
+    interface AdjacencyCheck {
+        /**
+         * @return Why piece i breaks the rule, or null if it satisfies it
+         */
+        String test(Boxes boxes, int i);
+    }
+    
+    private LayoutRuleSet(long version, double wallClearance, double defaultGap, List<LayoutRule> rules,
+                          Map<String, Integer> categoryIds, int[] margins, AdjacencyCheck[][] checks) {
+        this.version = version;
+        this.wallClearance = wallClearance;
+        this.wallClearanceMm = Millimetres.fromMeters(wallClearance);
+        this.defaultGap = defaultGap;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.categoryIds = Collections.unmodifiableMap(categoryIds);
+        this.margins = margins;
+        this.checks = checks;
+        this.defaultMargin = marginOfGap(defaultGap);
+        
+        int min = defaultMargin;
+        int max = defaultMargin;
+        for (int margin : margins) {
+            min = Math.min(min, margin);
+            max = Math.max(max, margin);
+        }
+        this.minMargin = min;
+        this.maxMargin = max;
+    }
+    
+    /**
+     * Compile rule rows into an evaluable rule set
+     * Rows that cannot be evaluated (unknown type, negative value, FACES without a target) are skipped with a warning
+     *
+     * @param version Version of the rule set, higher than that of every earlier set
+     * @param rules Rule rows
+     * @param wallClearance Clearance every piece keeps from the walls, in meters
+     * @param defaultGap Gap between pieces for categories without a GAP rule, in meters
+     */
+    public static LayoutRuleSet compile(long version, List<LayoutRule> rules, double wallClearance,
+                                        double defaultGap) {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        for (LayoutRule rule : rules) {
+            categoryIds.putIfAbsent(categoryKey(rule.getCategory()), categoryIds.size());
+            if (rule.getTargetCategory() != null) {
+                categoryIds.putIfAbsent(categoryKey(rule.getTargetCategory()), categoryIds.size());
+            }
+        }
+        
+        int[] margins = new int[categoryIds.size()];
+        Arrays.fill(margins, marginOfGap(defaultGap));
+        List<List<AdjacencyCheck>> checks = new ArrayList<>(categoryIds.size());
+        for (int i = 0; i < categoryIds.size(); i++) {
+            checks.add(new ArrayList<>());
+        }
+        
+        for (LayoutRule rule : rules) {
+            if (rule.getType() == null || rule.getValue() < 0 ||
+                (rule.getType() == LayoutRule.Type.FACES && rule.getTargetCategory() == null)) {
+                logger.warn("Skipping invalid layout rule {}", rule);
+                continue;
+            }
+            int category = categoryIds.get(categoryKey(rule.getCategory()));
+            double value = rule.getValue();
+            switch (rule.getType()) {
+                case GAP:
+                    margins[category] = marginOfGap(value);
+                    break;
+                case WALKWAY:
+                    checks.get(category).add(walkway(value));
+                    break;
+                case FACES:
+                    checks.get(category).add(faces(categoryIds.get(categoryKey(rule.getTargetCategory())),
+                            rule.getTargetCategory(), value));
+                    break;
+            }
+        }
+        
+        AdjacencyCheck[][] compiled = new AdjacencyCheck[checks.size()][];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = checks.get(i).toArray(new AdjacencyCheck[0]);
+        }
+        return new LayoutRuleSet(version, wallClearance, defaultGap, rules, categoryIds, margins, compiled);
+    }
+    
+    /**
+     * Version of this rule set; a changed rule table always compiles to a higher version
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Clearance every piece keeps from the walls, in meters
+     */
+    public double getWallClearance() {
+        return wallClearance;
+    }
+    
+    /**
+     * Gap between two pieces whose categories have no GAP rule, in meters
+     */
+    public double getDefaultGap() {
+        return defaultGap;
+    }
+    
+    /**
+     * Clearance every piece keeps from the walls, in millimetres
+     */
+    public int getWallClearanceMm() {
+        return wallClearanceMm;
+    }
+    
+    /**
+     * Rule rows this set was compiled from
+     */
+    public List<LayoutRule> getRules() {
+        return rules;
+    }
+    
+    /**
+     * Smallest margin of any category, in millimetres
+     */
+    public int getMinMarginMm() {
+        return minMargin;
+    }
+    
+    /**
+     * Largest margin of any category, in millimetres; inflating a piece by its own margin plus this
+     * one keeps it clear of every other piece whatever their category
+     */
+    public int getMaxMarginMm() {
+        return maxMargin;
+    }
+    
+    /**
+     * Half the gap a piece keeps to its neighbours, in millimetres
+     * A furniture set keeps the largest margin of its members
+     */
+    public int marginMmOf(Furniture furniture) {
+        if (furniture instanceof FurnitureGroup group) {
+            int margin = 0;
+            for (FurniturePosition member : group.getMembers()) {
+                margin = Math.max(margin, marginMmOf(member.getFurniture()));
+            }
+            return margin;
+        }
+        Integer id = categoryIds.get(categoryKey(furniture.getCategory()));
+        return id != null ? margins[id] : defaultMargin;
+    }
+    
+    /**
+     * Check the adjacency rules of every piece in a finished layout
+     *
+     * @param room Room the layout is in
+     * @param furniture Placements in layout order; null entries are skipped
+     * @return Violations ordered by piece index
+     */
+    public List<LayoutViolation> checkAdjacency(Room room, List<FurniturePosition> furniture) {
+        List<LayoutViolation> violations = new ArrayList<>();
+        if (checks.length == 0) {
+            return violations;
+        }
+        Boxes boxes = new Boxes(room, furniture);
+        for (int i = 0; i < boxes.count; i++) {
+            int category = boxes.category[i];
+            if (category < 0) {
+                continue;
+            }
+            for (AdjacencyCheck check : checks[category]) {
+                String message = check.test(boxes, i);
+                if (message != null) {
+                    violations.add(new LayoutViolation(boxes.index[i], boxes.name[i],
+                            LayoutViolation.Type.ADJACENCY, null, message));
+                }
+            }
+        }
+        return violations;
+    }
+    
+    /**
+     * A free floor strip of the given width inside the room along at least one side of the piece
+     */
+    private static AdjacencyCheck walkway(double width) {
+        int widthMm = Millimetres.fromMeters(width);
+        return (boxes, i) -> {
+            int x0 = boxes.minX[i];
+            int y0 = boxes.minY[i];
+            int x1 = boxes.maxX[i];
+            int y1 = boxes.maxY[i];
+            if (boxes.isFreeStrip(i, x0 - widthMm, y0, x0, y1) || boxes.isFreeStrip(i, x1, y0, x1 + widthMm, y1) ||
+                boxes.isFreeStrip(i, x0, y0 - widthMm, x1, y0) || boxes.isFreeStrip(i, x0, y1, x1, y1 + widthMm)) {
+                return null;
+            }
+            return boxes.name[i] + " needs a free " + width + " m walkway along one side";
+        };
+    }
+    
+    /**
+     * A piece of the target category directly across one of the long sides, at most the given distance
+     * away; satisfied trivially when the layout has no piece of the target category
+     */
+    private static AdjacencyCheck faces(int target, String targetName, double distance) {
+        int distanceMm = Millimetres.fromMeters(distance);
+        return (boxes, i) -> {
+            if (boxes.categoryCount[target] - (boxes.category[i] == target ? 1 : 0) == 0) {
+                return null;
+            }
+            // Across a long side: overlapping along it, separated by at most the distance across it
+            // The search box reaches 1 mm past the distance, since boxes that only touch it are not visited
+            boolean wide = boxes.maxX[i] - boxes.minX[i] >= boxes.maxY[i] - boxes.minY[i];
+            Integer across = wide
+                    ? boxes.grid.findFirst(boxes.minX[i], boxes.minY[i] - distanceMm - 1,
+                            boxes.maxX[i], boxes.maxY[i] + distanceMm + 1, j -> j != i && boxes.category[j] == target &&
+                            Math.max(boxes.minY[j] - boxes.maxY[i], boxes.minY[i] - boxes.maxY[j]) <= distanceMm)
+                    : boxes.grid.findFirst(boxes.minX[i] - distanceMm - 1, boxes.minY[i],
+                            boxes.maxX[i] + distanceMm + 1, boxes.maxY[i], j -> j != i && boxes.category[j] == target &&
+                            Math.max(boxes.minX[j] - boxes.maxX[i], boxes.minX[i] - boxes.maxX[j]) <= distanceMm);
+            return across == null ? boxes.name[i] + " does not face a " + targetName + " within " + distance + " m" : null;
+        };
+    }
+    
+    /**
+     * Margin for a gap in meters: half of it in millimetres, rounded up so two margins keep the whole gap
+     */
+    private static int marginOfGap(double gap) {
+        return (Millimetres.fromMeters(gap) + 1) / 2;
+    }
+    
+    private static String categoryKey(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Layout flattened into parallel millimetre arrays for the adjacency checks
+     * The boxes are also indexed in a spatial grid, so each check visits only nearby pieces
+     */
+    final class Boxes {
+        final FloorPlan plan;
+        final int count;
+        final int[] index;      // Position in the submitted layout
+        final int[] category;   // Dense category id, -1 for categories without rules
+        final int[] categoryCount;  // Pieces per dense category id
+        final String[] name;
+        final int[] minX;
+        final int[] minY;
+        final int[] maxX;
+        final int[] maxY;
+        final SpatialGrid<Integer> grid;
+        
+        Boxes(Room room, List<FurniturePosition> furniture) {
+            this.plan = room.getFloorPlan();
+            int n = 0;
+            for (FurniturePosition position : furniture) {
+                if (position != null) {
+                    n++;
+                }
+            }
+            this.count = n;
+            this.index = new int[n];
+            this.category = new int[n];
+            this.name = new String[n];
+            this.minX = new int[n];
+            this.minY = new int[n];
+            this.maxX = new int[n];
+            this.maxY = new int[n];
+            this.categoryCount = new int[categoryIds.size()];
+            
+            int k = 0;
+            for (int i = 0; i < furniture.size(); i++) {
+                FurniturePosition position = furniture.get(i);
+                if (position == null) {
+                    continue;
+                }
+                index[k] = i;
+                category[k] = categoryIds.getOrDefault(categoryKey(position.getFurniture().getCategory()), -1);
+                name[k] = position.getFurniture().getName();
+                minX[k] = position.getXMm();
+                minY[k] = position.getYMm();
+                maxX[k] = position.getMaxXMm();
+                maxY[k] = position.getMaxYMm();
+                if (category[k] >= 0) {
+                    categoryCount[category[k]]++;
+                }
+                k++;
+            }
+            
+            int extentX = 0;
+            int extentY = 0;
+            for (int j = 0; j < n; j++) {
+                extentX = Math.max(extentX, maxX[j]);
+                extentY = Math.max(extentY, maxY[j]);
+            }
+            this.grid = new SpatialGrid<>(extentX, extentY, GRID_CELL_MM);
+            for (int j = 0; j < n; j++) {
+                grid.insert(j, minX[j], minY[j], maxX[j], maxY[j]);
+            }
+        }
+        
+        /**
+         * Whether a strip lies inside the room's outline and overlaps no piece other than i
+         * Keep-out zones such as door swings count as floor a walkway may cross
+         */
+        boolean isFreeStrip(int i, int x0, int y0, int x1, int y1) {
+            return plan.insideOutline(x0, y0, x1, y1, 0) && grid.findFirst(x0, y0, x1, y1, j -> j != i) == null;
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "LayoutRuleSet{" +
+                "version=" + version +
+                ", wallClearance=" + wallClearance +
+                ", defaultGap=" + defaultGap +
+                ", rules=" + rules.size() +
+                ", categories=" + categoryIds.size() +
+                '}';
+    }
+}
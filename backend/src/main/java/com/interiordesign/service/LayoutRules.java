@@ -0,0 +1,75 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.LayoutRuleDAO;
+import com.interiordesign.model.LayoutRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holder of the compiled layout rules
+ * Rules are read from the layout_rule table, compiled once, and swapped atomically when the
+ * table changes; readers take one {@link LayoutRuleSet} per layout pass and never see a mix
+ */
+@Component
+public class LayoutRules {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LayoutRules.class);
+    
+    private final LayoutRuleDAO ruleDAO;
+    private final AtomicReference<LayoutRuleSet> ruleSet = new AtomicReference<>();
+    
+    @Value("${layout.rules.wall-clearance:0.5}")
+    private double wallClearance = 0.5;  // Minimum clearance from walls in meters
+    
+    @Value("${layout.rules.furniture-gap:0.3}")
+    private double furnitureGap = 0.3;  // Minimum gap between pieces without a category GAP rule
+    
+    public LayoutRules(LayoutRuleDAO ruleDAO) {
+        this.ruleDAO = ruleDAO;
+    }
+    
+    /**
+     * Get the current compiled rule set, compiling it on first access
+     */
+    public LayoutRuleSet current() {
+        LayoutRuleSet current = ruleSet.get();
+        return current != null ? current : loadInitialRuleSet();
+    }
+    
+    private synchronized LayoutRuleSet loadInitialRuleSet() {
+        LayoutRuleSet current = ruleSet.get();
+        if (current == null) {
+            current = LayoutRuleSet.compile(1, ruleDAO.findAll(), wallClearance, furnitureGap);
+            ruleSet.set(current);
+            logger.info("Compiled layout rules: {}", current);
+        }
+        return current;
+    }
+    
+    /**
+     * Re-read the rules and swap in a newly compiled set if the table content changed
+     * Rows are compared by value, so a change is never missed; a swapped set gets the next version
+     * @return Rule set in effect after the check
+     */
+    @Scheduled(fixedDelayString = "${layout.rules.refresh.interval.ms:60000}",
+               initialDelayString = "${layout.rules.refresh.interval.ms:60000}")
+    public synchronized LayoutRuleSet refresh() {
+        List<LayoutRule> rows = ruleDAO.findAll();
+        LayoutRuleSet current = ruleSet.get();
+        if (current != null && current.getRules().equals(rows)) {
+            logger.debug("Layout rules unchanged");
+            return current;
+        }
+        LayoutRuleSet updated = LayoutRuleSet.compile(current != null ? current.getVersion() + 1 : 1,
+                rows, wallClearance, furnitureGap);
+        ruleSet.set(updated);
+        logger.info("Layout rules changed, swapped rule set: {}", updated);
+        return updated;
+    }
+}
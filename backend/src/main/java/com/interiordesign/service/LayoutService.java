@@ -1,16 +1,28 @@
 package com.interiordesign.service;
 
 import com.interiordesign.ai.AIService;
+import com.interiordesign.ai.AISuggestionCache;
+import com.interiordesign.ai.exception.AIServiceException;
+import com.interiordesign.ai.model.AIDesignRules;
 import com.interiordesign.ai.model.AILayoutResponse;
+import com.interiordesign.dao.CatalogSnapshot;
 import com.interiordesign.dao.FurnitureDAO;
 import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LargeLayoutRequest;
+import com.interiordesign.model.LayoutMode;
+import com.interiordesign.model.LayoutViolation;
 import com.interiordesign.model.Room;
 import com.interiordesign.model.RoomLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for orchestrating room layout generation
@@ -22,29 +34,94 @@ public class LayoutService {
     private static final Logger logger = LoggerFactory.getLogger(LayoutService.class);
     
     private final FurnitureDAO furnitureDAO;
-    private final RuleEngine ruleEngine;
     private final AIService aiService;
+    private final AISuggestionCache suggestionCache;
+    private final CatalogPruner catalogPruner;
+    private final CandidateLayoutSearch candidateSearch;
+    private final LayoutRefiner layoutRefiner;
+    private final LayoutRules layoutRules;
+    private final LargeSpaceSolver largeSpaceSolver;
     
-    public LayoutService(FurnitureDAO furnitureDAO, RuleEngine ruleEngine, AIService aiService) {
+    @Value("${layout.default-mode:ai}")
+    private String defaultMode;
+    
+    @Value("${layout.refine.enabled:false}")
+    private boolean refineByDefault;
+    
+    @Value("${layout.large.max-pieces:5000}")
+    private int maxLargePieces = 5000;
+    
+    public LayoutService(FurnitureDAO furnitureDAO, AIService aiService, AISuggestionCache suggestionCache,
+                         CatalogPruner catalogPruner, CandidateLayoutSearch candidateSearch, LayoutRefiner layoutRefiner,
+                         LayoutRules layoutRules, LargeSpaceSolver largeSpaceSolver) {
         this.furnitureDAO = furnitureDAO;
-        this.ruleEngine = ruleEngine;
         this.aiService = aiService;
+        this.suggestionCache = suggestionCache;
+        this.catalogPruner = catalogPruner;
+        this.candidateSearch = candidateSearch;
+        this.layoutRefiner = layoutRefiner;
+        this.layoutRules = layoutRules;
+        this.largeSpaceSolver = largeSpaceSolver;
     }
     
     /**
-     * Create a validated room layout using AI suggestions
+     * Create a validated room layout using the configured default mode
      * 
      * @param room Room specifications (dimensions and budget)
      * @return Complete room layout with furniture positions
      */
     public RoomLayout createLayout(Room room) {
-        logger.info("Creating layout for room: {}", room);
+        return createLayout(room, null, null);
+    }
+    
+    /**
+     * Create a validated room layout
+     * 
+     * @param room Room specifications (dimensions and budget)
+     * @param mode How the layout is generated (AI, local packing, or AI with local fallback)
+     * @return Complete room layout with furniture positions
+     */
+    public RoomLayout createLayout(Room room, LayoutMode mode) {
+        return createLayout(room, mode, null);
+    }
+    
+    /**
+     * Create a validated room layout, optionally refined by the time-bounded optimizer
+     * 
+     * @param room Room specifications (dimensions and budget)
+     * @param mode Generation mode, or null for layout.default-mode
+     * @param refine Whether to run the refiner, or null for layout.refine.enabled
+     * @return Complete room layout with furniture positions
+     */
+    public RoomLayout createLayout(Room room, LayoutMode mode, Boolean refine) {
+        return createLayout(room, mode, refine, false);
+    }
+    
+    /**
+     * Create a validated room layout, optionally asking the AI for a fresh suggestion
+     * 
+     * @param room Room specifications (dimensions and budget)
+     * @param mode Generation mode, or null for layout.default-mode
+     * @param refine Whether to run the refiner, or null for layout.refine.enabled
+     * @param regenerate Skip the cached AI suggestion for this room; the fresh one replaces it
+     * @return Complete room layout with furniture positions
+     */
+    public RoomLayout createLayout(Room room, LayoutMode mode, Boolean refine, boolean regenerate) {
+        if (mode == null) {
+            mode = LayoutMode.fromValue(defaultMode);
+        }
+        boolean refineLayout = refine != null ? refine : refineByDefault;
+        room.getFloorPlan();  // Rejects a malformed outline or keep-out zone before any work is done
+        logger.info("Creating layout for room: {} (mode: {}, refine: {}, regenerate: {})",
+                room, mode.getValue(), refineLayout, regenerate);
         
         long startTime = System.currentTimeMillis();
         
-        // Step 1: Get all available furniture from database
-        List<Furniture> availableFurniture = furnitureDAO.findAll();
-        logger.debug("Retrieved {} furniture items from database", availableFurniture.size());
+        // Step 1: Get all available furniture from the in-memory catalog snapshot
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        List<Furniture> availableFurniture = catalog.getItems();
+        logger.debug("Using {} furniture items from catalog snapshot v{}",
+                availableFurniture.size(), catalog.getVersion());
         
         if (availableFurniture.isEmpty()) {
             logger.warn("No furniture available in database");
@@ -53,13 +130,48 @@ public class LayoutService {
             return emptyLayout;
         }
         
-        // Step 2: Call AI to get suggested layout
-        AILayoutResponse aiSuggestions = aiService.getSuggestedLayout(room, availableFurniture);
-        logger.debug("Received {} furniture suggestions from AI", 
-                aiSuggestions.getFurniture() != null ? aiSuggestions.getFurniture().size() : 0);
+        // Step 2: Drop items that cannot be afforded or cannot fit, so the prompt stays small
+        CatalogPruner.Result pruned = catalogPruner.prune(room, catalog);
+        
+        if (pruned.getFurniture().isEmpty()) {
+            logger.warn("No furniture fits the room and budget after pruning");
+            RoomLayout emptyLayout = new RoomLayout();
+            emptyLayout.addWarning("No furniture in the catalog fits this room and budget");
+            return emptyLayout;
+        }
+        
+        // Step 3: Generate the layout with the requested engine
+        RoomLayout layout;
+        LayoutMode effectiveMode = mode;
+        if (mode == LayoutMode.LOCAL) {
+            layout = candidateSearch.bestLocalLayout(room, pruned);
+        } else {
+            try {
+                layout = generateWithAI(room, catalog, pruned, regenerate);
+            } catch (AIServiceException e) {
+                if (mode != LayoutMode.AI_WITH_LOCAL_FALLBACK) {
+                    throw e;
+                }
+                logger.warn("AI layout failed, falling back to local solver: {}", e.getMessage());
+                layout = candidateSearch.bestLocalLayout(room, pruned);
+                layout.addWarning("AI service unavailable, layout was generated locally");
+                effectiveMode = LayoutMode.LOCAL;
+            }
+        }
+        layout.putMetadata("mode", effectiveMode.getValue());
+        
+        // Step 4: Optionally spend the remaining time budget improving the layout
+        if (refineLayout) {
+            layout = layoutRefiner.refine(room, layout, pruned);
+        }
         
-        // Step 3: Pass AI suggestions to RuleEngine for validation and adjustment
-        RoomLayout layout = ruleEngine.generateLayout(room, availableFurniture, aiSuggestions);
+        // Step 5: Furniture sets were placed as blocks; replace each with its member pieces
+        expandGroups(layout);
+        
+        // Step 6: Category adjacency rules are soft; report the ones the layout misses
+        for (LayoutViolation violation : layoutRules.current().checkAdjacency(room, layout.getFurniture())) {
+            layout.addWarning(violation.getMessage());
+        }
         
         long endTime = System.currentTimeMillis();
         logger.info("Layout generation completed in {}ms - {} items placed, cost: ${}", 
@@ -69,10 +181,112 @@ public class LayoutService {
     }
     
     /**
-     * Get all furniture from database
+     * Furnish a large space (up to 200 m per side) with the requested quantities
+     * Uses the tiled solver only: no AI call, no refiner and no adjacency report, which would not
+     * scale to thousands of pieces
+     * 
+     * @param request Room and item quantities
+     * @return Layout with every placed piece; pieces left out are counted in the warnings
+     * @throws IllegalArgumentException if an item is not in the catalog or too many pieces are requested
+     */
+    public RoomLayout createLargeLayout(LargeLayoutRequest request) {
+        Room room = request.toRoom();
+        room.getFloorPlan();  // Rejects a malformed outline or keep-out zone before any work is done
+        logger.info("Creating large-space layout: {}", request);
+        long startTime = System.currentTimeMillis();
+        
+        long total = 0;
+        for (LargeLayoutRequest.Item item : request.getItems()) {
+            total += item.getQuantity();
+        }
+        if (total > maxLargePieces) {
+            throw new IllegalArgumentException("At most " + maxLargePieces + " pieces can be placed per request, got " + total);
+        }
+        
+        // Expand the quantities against one catalog snapshot
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        List<Furniture> pieces = new ArrayList<>((int) total);
+        for (LargeLayoutRequest.Item item : request.getItems()) {
+            Furniture requested = item.getFurniture();
+            Furniture resolved = requested.getId() != null
+                    ? catalog.findById(requested.getId())
+                    : catalog.findPlaceable(requested.getName());
+            if (resolved == null) {
+                throw new IllegalArgumentException("Furniture '" +
+                        (requested.getId() != null ? requested.getId() : requested.getName()) + "' not found in catalog");
+            }
+            for (int k = 0; k < item.getQuantity(); k++) {
+                pieces.add(resolved);
+            }
+        }
+        
+        RoomLayout layout = largeSpaceSolver.place(room, pieces);
+        layout.putMetadata("mode", "large");
+        expandGroups(layout);
+        
+        logger.info("Large-space layout completed in {}ms - {} of {} pieces placed, cost: ${}",
+                System.currentTimeMillis() - startTime, layout.getFurnitureCount(), total, layout.getTotalCost());
+        return layout;
+    }
+    
+    /**
+     * Ask the AI for a layout over the pruned catalog, or reuse the cached or in-flight suggestion
+     * for an equivalent request, and validate it with the rule engine
+     * Requests sharing a suggestion each get their own validation pass
+     */
+    private RoomLayout generateWithAI(Room room, CatalogSnapshot catalog, CatalogPruner.Result pruned,
+                                      boolean regenerate) {
+        LayoutRuleSet rules = layoutRules.current();
+        AIDesignRules designRules = new AIDesignRules(rules.getWallClearance(), rules.getDefaultGap(),
+                rules.getRules());
+        AISuggestionCache.Key key = suggestionCache.keyFor(room, catalog.getVersion(), rules.getVersion());
+        AISuggestionCache.Lookup lookup = suggestionCache.fetch(key, regenerate,
+                () -> aiService.getSuggestedLayout(room, pruned.getFurniture(), designRules));
+        AILayoutResponse aiSuggestions = lookup.getResponse();
+        logger.debug("Received {} furniture suggestions from AI", 
+                aiSuggestions.getFurniture() != null ? aiSuggestions.getFurniture().size() : 0);
+        
+        // Validate AI suggestions with the RuleEngine under several placement orders, keep the best
+        RoomLayout layout = candidateSearch.bestAILayout(room, catalog, aiSuggestions);
+        layout.putMetadata("catalogItemsOffered", pruned.getFurniture().size());
+        layout.putMetadata("catalogItemsPruned", pruned.getDroppedCount());
+        layout.putMetadata("promptTokensSaved", pruned.getTokensSaved());
+        layout.putMetadata("aiCache", lookup.getSource());
+        return layout;
+    }
+    
+    /**
+     * Replace every placed furniture set with its members, keeping layout order
+     */
+    private void expandGroups(RoomLayout layout) {
+        List<FurniturePosition> expanded = new ArrayList<>(layout.getFurniture().size());
+        int groupsPlaced = 0;
+        for (FurniturePosition position : layout.getFurniture()) {
+            if (position.getFurniture() instanceof FurnitureGroup group) {
+                expanded.addAll(group.expand(position));
+                groupsPlaced++;
+            } else {
+                expanded.add(position);
+            }
+        }
+        if (groupsPlaced > 0) {
+            layout.setFurniture(expanded);
+            layout.putMetadata("groupsPlaced", groupsPlaced);
+        }
+    }
+    
+    /**
+     * Hit, miss and eviction counters of the AI suggestion cache, and waiters on in-flight AI calls
+     */
+    public Map<String, Object> getSuggestionCacheStats() {
+        return suggestionCache.stats();
+    }
+    
+    /**
+     * Get all furniture from the catalog snapshot
      * Used by frontend to display catalog
      * 
-     * @return List of all furniture items
+     * @return Unmodifiable list of all furniture items
      */
     public List<Furniture> getAllFurniture() {
         logger.debug("Fetching all furniture");
@@ -0,0 +1,118 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.dao.FurnitureDAO;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutValidationRequest;
+import com.interiordesign.model.LayoutValidationResponse;
+import com.interiordesign.model.LayoutViolation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service for checking saved layouts against the layout rules
+ * Pieces are re-resolved against the current catalog, so dimension and price changes are caught
+ */
+@Service
+public class LayoutValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LayoutValidationService.class);
+
+    private final FurnitureDAO furnitureDAO;
+    private final RuleEngine ruleEngine;
+
+    @Value("${layout.validate.max-batch:5000}")
+    private int maxBatch;
+
+    public LayoutValidationService(FurnitureDAO furnitureDAO, RuleEngine ruleEngine) {
+        this.furnitureDAO = furnitureDAO;
+        this.ruleEngine = ruleEngine;
+    }
+
+    /**
+     * Validate a batch of layouts
+     * One catalog snapshot is taken for the whole batch
+     *
+     * @param request Layouts to check
+     * @return Per-layout violations
+     */
+    public LayoutValidationResponse validate(LayoutValidationRequest request) {
+        List<LayoutValidationRequest.SubmittedLayout> layouts = request.getLayouts();
+        if (layouts.size() > maxBatch) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatch + " layouts, got " +
+                    layouts.size());
+        }
+
+        long startTime = System.currentTimeMillis();
+        CatalogSnapshot catalog = furnitureDAO.getSnapshot();
+        LayoutValidationResponse response = new LayoutValidationResponse(catalog.getVersion());
+
+        for (LayoutValidationRequest.SubmittedLayout layout : layouts) {
+            response.addResult(validateOne(layout, catalog));
+        }
+
+        logger.info("Validated {} layouts against catalog v{} in {}ms, {} invalid",
+                response.getLayoutsChecked(), catalog.getVersion(),
+                System.currentTimeMillis() - startTime, response.getInvalidLayouts());
+        return response;
+    }
+
+    private LayoutValidationResponse.Result validateOne(LayoutValidationRequest.SubmittedLayout layout,
+                                                        CatalogSnapshot catalog) {
+        List<LayoutViolation> violations = new ArrayList<>();
+        List<FurniturePosition> resolved = new ArrayList<>(layout.getFurniture().size());
+        int totalCost = 0;
+
+        for (int i = 0; i < layout.getFurniture().size(); i++) {
+            FurniturePosition position = layout.getFurniture().get(i);
+            Furniture furniture = position != null ? resolveFurniture(position.getFurniture(), catalog) : null;
+            if (furniture == null) {
+                String name = position != null && position.getFurniture() != null
+                        ? position.getFurniture().getName() : null;
+                violations.add(new LayoutViolation(i, name, LayoutViolation.Type.UNKNOWN_FURNITURE, null,
+                        "Furniture '" + describe(position) + "' not found in catalog"));
+                resolved.add(null);
+                continue;
+            }
+            resolved.add(new FurniturePosition(furniture, position.getX(), position.getY(), position.getRotation()));
+            totalCost += furniture.getPrice();
+        }
+
+        try {
+            violations.addAll(ruleEngine.validateLayout(layout.getRoom(), resolved));
+        } catch (IllegalArgumentException e) {
+            // A malformed room fails only its own layout, not the batch
+            violations.add(new LayoutViolation(-1, null, LayoutViolation.Type.INVALID_ROOM, null, e.getMessage()));
+        }
+        violations.sort(Comparator.comparingInt(LayoutViolation::getIndex));  // Stable: keeps rule order per piece
+        return new LayoutValidationResponse.Result(layout.getId(), totalCost, violations);
+    }
+
+    /**
+     * Find the catalog entry for a piece by id, or by name when no id is given
+     * @return Catalog furniture, or null if the piece is unknown
+     */
+    private Furniture resolveFurniture(Furniture furniture, CatalogSnapshot catalog) {
+        if (furniture == null) {
+            return null;
+        }
+        return furniture.getId() != null
+                ? catalog.findById(furniture.getId())
+                : catalog.findByName(furniture.getName());
+    }
+
+    private String describe(FurniturePosition position) {
+        if (position == null || position.getFurniture() == null) {
+            return "(missing)";
+        }
+        Furniture furniture = position.getFurniture();
+        return furniture.getId() != null ? String.valueOf(furniture.getId()) : furniture.getName();
+    }
+}
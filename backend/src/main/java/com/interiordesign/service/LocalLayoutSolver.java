@@ -0,0 +1,178 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.CatalogColumns;
+import com.interiordesign.geometry.MaxRectsPacker;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutWarning;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic local layout generator used as an AI-free fast path
+ * Picks one item per category in priority order and packs them into the room
+ * with a MaxRects heuristic, honoring wall clearance, furniture gap and budget
+ * Furniture sets are packed as one block and stand in for every category they contain
+ */
+@Component
+public class LocalLayoutSolver {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalLayoutSolver.class);
+    
+    // Selection sort key: rank | single-item flag | price | position, packed high to low
+    private static final int RANK_SHIFT = 59;
+    private static final int MAX_KEY_RANK = 15;
+    private static final long SINGLE_ITEM_BIT = 1L << 58;
+    private static final int PRICE_SHIFT = 27;
+    private static final long MAX_KEY_PRICE = (1L << 31) - 1;
+    private static final long POSITION_MASK = (1L << PRICE_SHIFT) - 1;
+    
+    private final LayoutRules layoutRules;
+    
+    public LocalLayoutSolver(LayoutRules layoutRules) {
+        this.layoutRules = layoutRules;
+    }
+    
+    /**
+     * Generate a layout without calling the AI
+     * 
+     * @param room Room specifications
+     * @param candidates Catalog rows that may be placed (typically the pruned catalog)
+     * @return Layout with packed furniture positions
+     */
+    public RoomLayout generateLayout(Room room, CatalogPruner.Result candidates) {
+        return pack(room, selectionOrder(candidates.getColumns(), candidates.getRows()));
+    }
+    
+    /**
+     * Order candidates for placement: one item per category, anchor categories first,
+     * cheapest item of each category
+     * Every furniture set is kept, ahead of the single items of its anchor category; the single
+     * items stay in the order as fallbacks for when the set cannot be placed
+     * The sort and the per-category pick run on the catalog columns; only the chosen rows are
+     * turned back into catalog objects
+     */
+    List<Furniture> selectionOrder(CatalogColumns columns, int[] rows) {
+        int[] rank = new int[columns.categoryCount()];
+        for (int id = 0; id < rank.length; id++) {
+            rank[id] = Math.min(CategoryPriority.rank(columns.categoryName(id)), MAX_KEY_RANK);
+        }
+        
+        // One packed key per row sorts by rank, sets first, price, then original position
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            keys[i] = ((long) rank[columns.category(row)] << RANK_SHIFT) |
+                      (columns.isGroup(row) ? 0 : SINGLE_ITEM_BIT) |
+                      (Math.min(Math.max(columns.price(row), 0), MAX_KEY_PRICE) << PRICE_SHIFT) |
+                      i;
+        }
+        Arrays.sort(keys);
+        
+        List<Furniture> order = new ArrayList<>();
+        boolean[] seenCategories = new boolean[columns.categoryCount()];
+        for (long key : keys) {
+            int row = rows[(int) (key & POSITION_MASK)];
+            int category = columns.category(row);
+            if (columns.isGroup(row) || !seenCategories[category]) {
+                seenCategories[category] |= !columns.isGroup(row);
+                order.add(columns.piece(row));
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Categories a placed piece fills: its own, or every member's for a furniture set
+     */
+    static List<String> categoriesOf(Furniture furniture) {
+        if (furniture instanceof FurnitureGroup group) {
+            return group.getMemberCategories();
+        }
+        return Collections.singletonList(furniture.getCategory());
+    }
+    
+    /**
+     * Pack items in the given order
+     * Every box is inflated on its right and top edges by its own margin plus the largest margin
+     * of any category, so neighbours always keep the gap their categories require; the bin is
+     * extended by the largest plus the smallest margin, so a piece with the smallest margin can
+     * still sit flush against the clearance line and none can cross it
+     * Packed in whole millimetres, so two inflated boxes placed edge to edge are exactly their gap apart
+     * Parts of the bin the room's floor plan rules out are occupied before the first piece
+     */
+    RoomLayout pack(Room room, List<Furniture> order) {
+        LayoutRuleSet rules = layoutRules.current();
+        int clearance = rules.getWallClearanceMm();
+        int extension = rules.getMaxMarginMm() + rules.getMinMarginMm();
+        int budget = room.getBudget();
+        
+        MaxRectsPacker packer = new MaxRectsPacker(
+                clearance, clearance,
+                room.getLengthMm() - clearance + extension,
+                room.getWidthMm() - clearance + extension);
+        
+        // Floor outside an L-shaped or angled outline and keep-out zones, decomposed once per room;
+        // occupied as they are, so a piece keeps its own gap from them on its right and top sides
+        for (int[] obstacle : room.getFloorPlan().obstacles(clearance)) {
+            packer.occupy(obstacle[0], obstacle[1], obstacle[2] - obstacle[0], obstacle[3] - obstacle[1]);
+        }
+        
+        RoomLayout layout = new RoomLayout();
+        List<FurniturePosition> placed = new ArrayList<>();
+        Set<String> filledCategories = new HashSet<>();
+        int totalCost = 0;
+        
+        for (Furniture furniture : order) {
+            List<String> categories = categoriesOf(furniture);
+            if (!Collections.disjoint(filledCategories, categories)) {
+                continue;  // Already covered by a furniture set or an earlier piece
+            }
+            if (totalCost + furniture.getPrice() > budget) {
+                layout.addWarning(LayoutWarning.BUDGET_LIMIT, furniture.getName());
+                continue;
+            }
+            int gap = rules.marginMmOf(furniture) + rules.getMaxMarginMm();
+            int rotation = 0;
+            long slot = packer.insert(furniture.getWidthMm() + gap, furniture.getDepthMm() + gap);
+            if (slot == MaxRectsPacker.NO_FIT && furniture.getWidthMm() != furniture.getDepthMm()) {
+                // Try the piece turned a quarter before giving up
+                rotation = 90;
+                slot = packer.insert(furniture.getDepthMm() + gap, furniture.getWidthMm() + gap);
+            }
+            if (slot == MaxRectsPacker.NO_FIT) {
+                layout.addWarning(LayoutWarning.NO_FREE_SPACE, furniture.getName());
+                continue;
+            }
+            placed.add(FurniturePosition.ofMillimetres(furniture,
+                    MaxRectsPacker.cornerX(slot), MaxRectsPacker.cornerY(slot), rotation));
+            filledCategories.addAll(categories);
+            totalCost += furniture.getPrice();
+        }
+        
+        layout.setFurniture(placed);
+        layout.setTotalCost(totalCost);
+        layout.setReasoning("Generated locally: anchor pieces such as beds and sofas were placed first, " +
+                "then remaining categories were packed into the free floor area while keeping " +
+                "wall clearance and walking gaps.");
+        
+        if (placed.isEmpty()) {
+            layout.addWarning(LayoutWarning.NOTHING_PLACED, null);
+        }
+        
+        logger.debug("Local solver placed {} of {} items, total cost ${}", 
+                placed.size(), order.size(), totalCost);
+        return layout;
+    }
+}
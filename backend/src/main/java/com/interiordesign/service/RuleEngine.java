@@ -1,40 +1,76 @@
 package com.interiordesign.service;
 
 import com.interiordesign.ai.model.AILayoutResponse;
+import com.interiordesign.dao.CatalogColumns;
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.geometry.CollisionKernel;
+import com.interiordesign.geometry.FeasibleRegionMap;
+import com.interiordesign.geometry.FloorPlan;
+import com.interiordesign.geometry.Millimetres;
+import com.interiordesign.geometry.OccupancyBitmap;
+import com.interiordesign.geometry.SpatialGrid;
+import com.interiordesign.geometry.SweepLineValidator;
 import com.interiordesign.model.Furniture;
 import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutViolation;
+import com.interiordesign.model.LayoutWarning;
 import com.interiordesign.model.Room;
 import com.interiordesign.model.RoomLayout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Rule engine for validating and adjusting furniture placements
  * Applies business rules to ensure valid room layouts
+ * Placing a piece allocates nothing beyond the piece's own entries in the placement state:
+ * room dimensions are read once into primitives, searches return packed cells, the collision
+ * filter is reused, warnings are recorded as codes and per-piece logging is guarded
+ * All geometry runs in whole millimetres, so touching at exactly the required gap is always allowed
  */
 @Component
 public class RuleEngine {
     
     private static final Logger logger = LoggerFactory.getLogger(RuleEngine.class);
     
-    private static final double WALL_CLEARANCE = 0.5;  // Minimum clearance from walls in meters
-    private static final double MIN_FURNITURE_GAP = 0.3;  // Minimum gap between furniture pieces
+    /** Layout metadata key: number of placements moved away from their suggested position */
+    public static final String METADATA_ADJUSTED_PLACEMENTS = "adjustedPlacements";
+    
+    @Value("${layout.spatial-index.cell-size:1.0}")
+    private double spatialIndexCellSize = 1.0;  // Grid cell edge in meters
+    
+    @Value("${layout.occupancy.resolution:0.01}")
+    private double occupancyResolution = 0.01;  // Occupancy bitmap cell edge in meters
+    
+    @Value("${layout.search.step:0.01}")
+    private double searchStep = 0.01;  // Lattice spacing of the nearest-free-position search in meters
+    
+    @Value("${layout.search.max-candidates:4096}")
+    private int searchMaxCandidates = 4096;  // Footprint tests before falling back to the feasible-region map
+    
+    private final BudgetSelector budgetSelector;
+    private final LayoutRules layoutRules;
+    
+    public RuleEngine(BudgetSelector budgetSelector, LayoutRules layoutRules) {
+        this.budgetSelector = budgetSelector;
+        this.layoutRules = layoutRules;
+    }
     
     /**
      * Generate validated room layout based on AI suggestions
      * Applies validation rules and adjusts positions as needed
      * 
      * @param room Room specifications
-     * @param availableFurniture Available furniture catalog
+     * @param catalog Catalog snapshot with prebuilt name index
      * @param aiSuggestions AI-generated layout suggestions
      * @return Validated and adjusted room layout
      */
-    public RoomLayout generateLayout(Room room, List<Furniture> availableFurniture, 
+    public RoomLayout generateLayout(Room room, CatalogSnapshot catalog, 
                                     AILayoutResponse aiSuggestions) {
         logger.info("Generating layout for room {} x {} with budget ${}", 
                 room.getLength(), room.getWidth(), room.getBudget());
@@ -42,53 +78,89 @@ public class RuleEngine {
         RoomLayout layout = new RoomLayout();
         layout.setReasoning(aiSuggestions.getReasoning());
         
-        List<FurniturePosition> placedFurniture = new ArrayList<>();
+        List<AILayoutResponse.AIFurniturePlacement> suggestions = aiSuggestions.getFurniture();
+        List<FurniturePosition> placedFurniture = new ArrayList<>(suggestions.size());
+        PlacementState state = new PlacementState(room, layoutRules.current());
+        int budget = state.budget;
         int totalCost = 0;
+        int adjustedPlacements = 0;
         
-        // Process each AI-suggested furniture placement
-        for (AILayoutResponse.AIFurniturePlacement aiPlacement : aiSuggestions.getFurniture()) {
-            // Find furniture in catalog by name
-            Optional<Furniture> furnitureOpt = findFurnitureByName(availableFurniture, aiPlacement.getName());
-            
-            if (furnitureOpt.isEmpty()) {
-                logger.warn("Furniture '{}' not found in catalog, skipping", aiPlacement.getName());
-                layout.addWarning("Furniture '" + aiPlacement.getName() + "' not found in catalog");
-                continue;
-            }
-            
-            Furniture furniture = furnitureOpt.get();
-            
-            // Check budget constraint
-            if (totalCost + furniture.getPrice() > room.getBudget()) {
-                logger.info("Budget exceeded, cannot add {} (${}) - would exceed budget by ${}",
-                        furniture.getName(), furniture.getPrice(), 
-                        (totalCost + furniture.getPrice() - room.getBudget()));
-                layout.addWarning("Budget limit reached, could not place " + furniture.getName());
-                continue;
-            }
-            
-            // Create furniture position
-            FurniturePosition position = new FurniturePosition(furniture, aiPlacement.getX(), aiPlacement.getY());
-            
-            // Validate and adjust position
-            if (validateAndAdjustPosition(position, room, placedFurniture)) {
-                placedFurniture.add(position);
-                totalCost += furniture.getPrice();
-                logger.debug("Placed {} at ({}, {})", furniture.getName(), position.getX(), position.getY());
+        // Find each suggested furniture or furniture set in the catalog columns by name (index lookup)
+        CatalogColumns columns = catalog.getColumns();
+        int[] rows = new int[suggestions.size()];
+        Furniture[] resolved = new Furniture[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            String name = suggestions.get(i).getName();
+            rows[i] = columns.findRow(name);
+            if (rows[i] < 0) {
+                logger.warn("Furniture '{}' not found in catalog, skipping", name);
+                layout.addWarning(LayoutWarning.NOT_IN_CATALOG, name);
             } else {
-                logger.warn("Could not place {} at ({}, {}) - validation failed",
-                        furniture.getName(), aiPlacement.getX(), aiPlacement.getY());
-                layout.addWarning("Could not place " + furniture.getName() + " at suggested position");
+                resolved[i] = columns.piece(rows[i]);
+            }
+        }
+        
+        // Decide what to buy across all suggestions before placing anything
+        boolean[] selected = budgetSelector.select(columns, rows, budget);
+        
+        // Pass 0 places the selected pieces; pass 1 offers the rest any budget freed by pieces
+        // that could not be placed
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < resolved.length; i++) {
+                Furniture furniture = resolved[i];
+                if (furniture == null || selected[i] != (pass == 0)) {
+                    continue;
+                }
+                AILayoutResponse.AIFurniturePlacement aiPlacement = suggestions.get(i);
+                
+                // Check budget constraint
+                if (totalCost + furniture.getPrice() > budget) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Budget exceeded, cannot add {} (${}) - would exceed budget by ${}",
+                                furniture.getName(), furniture.getPrice(), totalCost + furniture.getPrice() - budget);
+                    }
+                    layout.addWarning(LayoutWarning.BUDGET_LIMIT, furniture.getName());
+                    continue;
+                }
+                
+                // Create furniture position
+                FurniturePosition position = new FurniturePosition(furniture, aiPlacement.getX(), aiPlacement.getY(),
+                        aiPlacement.getRotation());
+                int suggestedX = position.getXMm();
+                int suggestedY = position.getYMm();
+                int suggestedRotation = position.getRotation();
+                
+                // Validate and adjust position
+                if (validateAndAdjustPosition(position, state)) {
+                    placedFurniture.add(position);
+                    state.place(position);
+                    totalCost += furniture.getPrice();
+                    if (position.getXMm() != suggestedX || position.getYMm() != suggestedY ||
+                        position.getRotation() != suggestedRotation) {
+                        adjustedPlacements++;
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Placed {} at ({}, {}) rotated {}°", furniture.getName(),
+                                position.getX(), position.getY(), position.getRotation());
+                    }
+                } else {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Could not place {} at ({}, {}) - validation failed",
+                                furniture.getName(), aiPlacement.getX(), aiPlacement.getY());
+                    }
+                    layout.addWarning(LayoutWarning.NOT_PLACED, furniture.getName());
+                }
             }
         }
         
         // Set final layout data
         layout.setFurniture(placedFurniture);
         layout.setTotalCost(totalCost);
+        layout.putMetadata(METADATA_ADJUSTED_PLACEMENTS, adjustedPlacements);
         
         // Add summary warning if no furniture placed
         if (placedFurniture.isEmpty()) {
-            layout.addWarning("No furniture could be placed with the given constraints");
+            layout.addWarning(LayoutWarning.NOTHING_PLACED, null);
         }
         
         logger.info("Layout generation complete: {} items placed, total cost ${}", 
@@ -97,163 +169,459 @@ public class RuleEngine {
         return layout;
     }
     
+    /**
+     * Validate one edited piece against an existing layout
+     * Only the edited piece is checked and, if needed, moved; the other pieces stay as they are
+     * 
+     * @param room Room specifications
+     * @param existing Pieces already in the layout, excluding the edited one
+     * @param position Edited piece at its requested position; adjusted in place
+     * @return true if the piece is placed, possibly after adjustment
+     */
+    public boolean placeSingle(Room room, List<FurniturePosition> existing, FurniturePosition position) {
+        PlacementState state = new PlacementState(room, layoutRules.current());
+        for (FurniturePosition placed : existing) {
+            state.place(placed);
+        }
+        return validateAndAdjustPosition(position, state);
+    }
+    
+    /**
+     * Check a finished layout against the wall clearance, keep-out, collision, adjacency and budget rules
+     * Pieces are reported, not moved; each colliding pair is reported once, on the later piece
+     * 
+     * @param room Room specifications
+     * @param furniture Placements in layout order; null entries (unknown pieces) are skipped
+     * @return Violations ordered by piece index
+     */
+    public List<LayoutViolation> validateLayout(Room room, List<FurniturePosition> furniture) {
+        LayoutRuleSet rules = layoutRules.current();
+        int clearance = rules.getWallClearanceMm();
+        int budget = room.getBudget();
+        FloorPlan plan = room.getFloorPlan();
+        
+        // One sweep over the whole layout finds clearance violations and all colliding pairs
+        SweepLineValidator validator = new SweepLineValidator(clearance, clearance,
+                room.getLengthMm() - clearance, room.getWidthMm() - clearance);
+        int[] pieceIndex = new int[furniture.size()];
+        int[] margins = new int[furniture.size()];
+        for (int i = 0; i < furniture.size(); i++) {
+            FurniturePosition position = furniture.get(i);
+            if (position != null) {
+                margins[i] = rules.marginMmOf(position.getFurniture());
+                pieceIndex[validator.add(position.getXMm(), position.getYMm(),
+                        position.getMaxXMm(), position.getMaxYMm(), margins[i])] = i;
+            }
+        }
+        SweepLineValidator.Result result = validator.validate();
+        List<LayoutViolation> adjacency = rules.checkAdjacency(room, furniture);
+        
+        // Report per piece in layout order: clearance, keep-out zones, collisions, adjacency, budget
+        List<LayoutViolation> violations = new ArrayList<>();
+        int nextOutOfBounds = 0;
+        int nextCollision = 0;
+        int nextAdjacency = 0;
+        int totalCost = 0;
+        for (int id = 0; id < validator.size(); id++) {
+            int i = pieceIndex[id];
+            FurniturePosition position = furniture.get(i);
+            String name = position.getFurniture().getName();
+            
+            // Rule 1: wall clearance, then the room's outline and keep-out zones
+            boolean outOfBounds = nextOutOfBounds < result.getOutOfBounds().size() &&
+                                  result.getOutOfBounds().get(nextOutOfBounds) == id;
+            if (outOfBounds) {
+                nextOutOfBounds++;
+            }
+            if (outOfBounds || (!plan.isRectangle() && !plan.insideOutline(position.getXMm(), position.getYMm(),
+                    position.getMaxXMm(), position.getMaxYMm(), clearance))) {
+                violations.add(new LayoutViolation(i, name, LayoutViolation.Type.WALL_CLEARANCE, null,
+                        name + " is closer than " + rules.getWallClearance() + " m to a wall or outside the room"));
+            }
+            int zone = plan.keepOutAt(position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm());
+            if (zone >= 0) {
+                violations.add(new LayoutViolation(i, name, LayoutViolation.Type.KEEP_OUT, null,
+                        name + " blocks " + room.describeKeepOutZone(zone)));
+            }
+            
+            // Rule 2: overlap or minimum gap with earlier pieces
+            while (nextCollision < result.getCollisions().size() && result.getCollisions().get(nextCollision)[1] == id) {
+                int other = pieceIndex[result.getCollisions().get(nextCollision++)[0]];
+                FurniturePosition neighbour = furniture.get(other);
+                String message = position.overlapsWith(neighbour)
+                        ? name + " overlaps " + neighbour.getFurniture().getName()
+                        : name + " is closer than " + Millimetres.toMeters(margins[i] + margins[other]) +
+                          " m to " + neighbour.getFurniture().getName();
+                violations.add(new LayoutViolation(i, name, LayoutViolation.Type.COLLISION, other, message));
+            }
+            
+            // Rule 3: category adjacency (walkways, facing)
+            while (nextAdjacency < adjacency.size() && adjacency.get(nextAdjacency).getIndex() == i) {
+                violations.add(adjacency.get(nextAdjacency++));
+            }
+            
+            // Rule 4: budget, in layout order; reported once, on the piece that crosses it
+            boolean withinBudget = totalCost <= budget;
+            totalCost += position.getFurniture().getPrice();
+            if (withinBudget && totalCost > budget) {
+                violations.add(new LayoutViolation(i, name, LayoutViolation.Type.BUDGET, null,
+                        "Adding " + name + " brings the cost to $" + totalCost +
+                        ", over the $" + budget + " budget"));
+            }
+        }
+        return violations;
+    }
+    
     /**
      * Validate and adjust furniture position to meet all rules
      * 
      * @param position Furniture position to validate
-     * @param room Room specifications
-     * @param existingFurniture Already placed furniture
+     * @param state Placement state with already placed furniture
      * @return true if position is valid or successfully adjusted
      */
-    private boolean validateAndAdjustPosition(FurniturePosition position, Room room, 
-                                             List<FurniturePosition> existingFurniture) {
+    private boolean validateAndAdjustPosition(FurniturePosition position, PlacementState state) {
         Furniture furniture = position.getFurniture();
         
-        // Rule 1: Check if furniture fits in room with wall clearance
-        if (!fitsInRoomWithClearance(position, room)) {
-            logger.debug("{} doesn't fit in room at ({}, {})", 
-                    furniture.getName(), position.getX(), position.getY());
-            
-            // Try to adjust position
-            if (!tryAdjustToFitRoom(position, room)) {
-                return false;
-            }
+        // Fast path: a free footprint in the occupancy bitmap satisfies clearance and gap rules
+        if (state.isFootprintFree(position)) {
+            return true;
         }
         
-        // Rule 2: Check for collisions with existing furniture
-        for (FurniturePosition existing : existingFurniture) {
-            if (hasCollision(position, existing)) {
-                logger.debug("{} collides with {}", furniture.getName(), existing.getFurniture().getName());
-                
-                // Try to adjust position to avoid collision
-                if (!tryAdjustToAvoidCollision(position, existing, room)) {
-                    return false;
+        int suggestedRotation = position.getRotation();
+        int suggestedX = position.getXMm();
+        int suggestedY = position.getYMm();
+        
+        // Pieces larger than the usable floor in both orientations can never be placed
+        boolean fitsAsSuggested = fitsUsableFloor(position.getFootprintWidthMm(), position.getFootprintDepthMm(), state);
+        boolean fitsTurned = fitsUsableFloor(position.getFootprintDepthMm(), position.getFootprintWidthMm(), state);
+        if (!fitsAsSuggested && !fitsTurned) {
+            logger.debug("{} is too large for the room", furniture.getName());
+            return false;
+        }
+        
+        int margin = state.rules.marginMmOf(furniture);
+        if (fitsAsSuggested && tryAdjustInOrientation(position, margin, state)) {
+            return true;
+        }
+        
+        // Try the swapped orientation before giving up on the piece
+        position.setXMm(suggestedX);
+        position.setYMm(suggestedY);
+        if (fitsTurned && furniture.getWidthMm() != furniture.getDepthMm()) {
+            position.setRotation(suggestedRotation + 90);
+            if (tryAdjustInOrientation(position, margin, state)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Placed {} after turning it to {}°", furniture.getName(), position.getRotation());
                 }
+                return true;
             }
+            position.setRotation(suggestedRotation);
+            position.setXMm(suggestedX);
+            position.setYMm(suggestedY);
         }
         
-        // Final validation after adjustments
-        if (!fitsInRoomWithClearance(position, room)) {
-            return false;
-        }
+        return false;
+    }
+    
+    /**
+     * Adjust the position in its current orientation: pull it inside the clearance line,
+     * then snap it to the nearest feasible position if it still collides
+     */
+    private boolean tryAdjustInOrientation(FurniturePosition position, int margin, PlacementState state) {
+        int clearance = state.rules.getWallClearanceMm();
         
-        for (FurniturePosition existing : existingFurniture) {
-            if (hasCollision(position, existing)) {
-                return false;
+        // Rule 1: Check if furniture fits in room with wall clearance
+        if (!fitsInRoomWithClearance(position, state.length, state.width, clearance)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} doesn't fit in room at ({}, {})",
+                        position.getFurniture().getName(), position.getX(), position.getY());
             }
+            
+            // Pull the piece back inside the clearance line
+            tryAdjustToFitRoom(position, state.length, state.width, clearance);
         }
         
-        return true;
+        // Rule 2: Check for collisions with neighbouring furniture
+        if (state.isClear(position, margin)) {
+            return true;
+        }
+        
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} collides with placed furniture at ({}, {})",
+                    position.getFurniture().getName(), position.getX(), position.getY());
+        }
+        return trySnapToFeasibleRegion(position, margin, state);
+    }
+    
+    /**
+     * Check whether a footprint fits the room's floor inside the wall clearance at all
+     */
+    private static boolean fitsUsableFloor(int footprintWidth, int footprintDepth, PlacementState state) {
+        int clearance = state.rules.getWallClearanceMm();
+        return footprintWidth <= state.length - 2 * clearance &&
+               footprintDepth <= state.width - 2 * clearance;
     }
     
     /**
      * Check if furniture fits in room with required wall clearance
      */
-    private boolean fitsInRoomWithClearance(FurniturePosition position, Room room) {
-        double x = position.getX();
-        double y = position.getY();
-        double width = position.getFurniture().getWidth();
-        double depth = position.getFurniture().getDepth();
-        
+    private static boolean fitsInRoomWithClearance(FurniturePosition position, int length, int width,
+                                                   int clearance) {
         // Check boundaries with clearance
-        return x >= WALL_CLEARANCE &&
-               y >= WALL_CLEARANCE &&
-               (x + width) <= (room.getLength() - WALL_CLEARANCE) &&
-               (y + depth) <= (room.getWidth() - WALL_CLEARANCE);
+        return CollisionKernel.inside(position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm(),
+                clearance, clearance, length - clearance, width - clearance);
     }
     
     /**
-     * Check if two furniture positions collide (with minimum gap)
+     * Check if two furniture positions collide (closer than the gap their categories require)
+     * 
+     * @param gap Required gap, the sum of both pieces' margins
      */
-    private boolean hasCollision(FurniturePosition pos1, FurniturePosition pos2) {
-        double x1 = pos1.getX() - MIN_FURNITURE_GAP;
-        double y1 = pos1.getY() - MIN_FURNITURE_GAP;
-        double x1End = pos1.getX() + pos1.getFurniture().getWidth() + MIN_FURNITURE_GAP;
-        double y1End = pos1.getY() + pos1.getFurniture().getDepth() + MIN_FURNITURE_GAP;
-        
-        double x2 = pos2.getX();
-        double y2 = pos2.getY();
-        double x2End = pos2.getX() + pos2.getFurniture().getWidth();
-        double y2End = pos2.getY() + pos2.getFurniture().getDepth();
-        
-        // Check for overlap
-        return !(x1End <= x2 || x1 >= x2End || y1End <= y2 || y1 >= y2End);
+    private static boolean hasCollision(FurniturePosition pos1, FurniturePosition pos2, int gap) {
+        return CollisionKernel.collides(
+                pos1.getXMm(), pos1.getYMm(), pos1.getMaxXMm(), pos1.getMaxYMm(),
+                gap,
+                pos2.getXMm(), pos2.getYMm(), pos2.getMaxXMm(), pos2.getMaxYMm());
     }
     
     /**
      * Try to adjust furniture position to fit in room
      */
-    private boolean tryAdjustToFitRoom(FurniturePosition position, Room room) {
-        double x = position.getX();
-        double y = position.getY();
-        double width = position.getFurniture().getWidth();
-        double depth = position.getFurniture().getDepth();
+    private static boolean tryAdjustToFitRoom(FurniturePosition position, int length, int width,
+                                              int clearance) {
+        int x = position.getXMm();
+        int y = position.getYMm();
+        int footprintWidth = position.getFootprintWidthMm();
+        int footprintDepth = position.getFootprintDepthMm();
         
         // Adjust x coordinate if needed
-        if (x < WALL_CLEARANCE) {
-            x = WALL_CLEARANCE;
-        } else if (x + width > room.getLength() - WALL_CLEARANCE) {
-            x = room.getLength() - WALL_CLEARANCE - width;
+        if (x < clearance) {
+            x = clearance;
+        } else if (x + footprintWidth > length - clearance) {
+            x = length - clearance - footprintWidth;
         }
         
         // Adjust y coordinate if needed
-        if (y < WALL_CLEARANCE) {
-            y = WALL_CLEARANCE;
-        } else if (y + depth > room.getWidth() - WALL_CLEARANCE) {
-            y = room.getWidth() - WALL_CLEARANCE - depth;
+        if (y < clearance) {
+            y = clearance;
+        } else if (y + footprintDepth > width - clearance) {
+            y = width - clearance - footprintDepth;
         }
         
         // Check if adjusted position is valid
-        if (x < 0 || y < 0 || x + width > room.getLength() || y + depth > room.getWidth()) {
+        if (x < 0 || y < 0 || x + footprintWidth > length || y + footprintDepth > width) {
             return false;  // Furniture too large for room
         }
         
-        position.setX(x);
-        position.setY(y);
+        position.setXMm(x);
+        position.setYMm(y);
         return true;
     }
     
     /**
-     * Try to adjust furniture position to avoid collision
+     * Move the piece to the closest position where its footprint fits
+     * A collision is usually resolved within a few centimetres, so a bounded lattice search around
+     * the piece runs first; only when it runs out of tests is the feasible-region map of the
+     * footprint size used, which the placement state builds once per size and keeps up to date
+     * as pieces are placed. A size that already has a map goes straight to it
      */
-    private boolean tryAdjustToAvoidCollision(FurniturePosition position, FurniturePosition existing, Room room) {
-        // Try small adjustments in different directions
-        double[][] adjustments = {
-            {0.5, 0},    // Move right
-            {-0.5, 0},   // Move left
-            {0, 0.5},    // Move up
-            {0, -0.5},   // Move down
-            {0.5, 0.5},  // Move diagonal
-            {-0.5, 0.5},
-            {0.5, -0.5},
-            {-0.5, -0.5}
-        };
-        
-        double originalX = position.getX();
-        double originalY = position.getY();
-        
-        for (double[] adj : adjustments) {
-            position.setX(originalX + adj[0]);
-            position.setY(originalY + adj[1]);
-            
-            if (fitsInRoomWithClearance(position, room) && !hasCollision(position, existing)) {
-                logger.debug("Adjusted position by ({}, {}) to avoid collision", adj[0], adj[1]);
-                return true;
+    private boolean trySnapToFeasibleRegion(FurniturePosition position, int margin, PlacementState state) {
+        OccupancyBitmap occupancy = state.occupancy;
+        int column = occupancy.cellFloor(position.getXMm());
+        int row = occupancy.cellFloor(position.getYMm());
+        int footprintColumns = occupancy.cellSpan(position.getFootprintWidthMm());
+        int footprintRows = occupancy.cellSpan(position.getFootprintDepthMm());
+        
+        long origin = OccupancyBitmap.NO_CELL;
+        FeasibleRegionMap region = state.cachedFeasibleRegion(footprintColumns, footprintRows);
+        if (region == null) {
+            int step = Math.max(1, occupancy.cellSpan(Millimetres.fromMeters(searchStep)));
+            origin = occupancy.findNearestFit(column, row, footprintColumns, footprintRows, step, searchMaxCandidates);
+        }
+        if (origin == OccupancyBitmap.NO_CELL) {
+            if (region == null) {
+                region = state.feasibleRegion(footprintColumns, footprintRows);
+            }
+            origin = region.findNearest(column, row);
+        }
+        if (origin == OccupancyBitmap.NO_CELL) {
+            logger.debug("No feasible position for {} in this orientation", position.getFurniture().getName());
+            return false;
+        }
+        
+        int originalX = position.getXMm();
+        int originalY = position.getYMm();
+        position.setXMm(occupancy.coordinate(OccupancyBitmap.cellColumn(origin)));
+        position.setYMm(occupancy.coordinate(OccupancyBitmap.cellRow(origin)));
+        
+        if (state.isClear(position, margin)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Moved {} to nearest feasible position ({}, {})",
+                        position.getFurniture().getName(), position.getX(), position.getY());
             }
+            return true;
         }
         
-        // Restore original position if no adjustment worked
-        position.setX(originalX);
-        position.setY(originalY);
+        position.setXMm(originalX);
+        position.setYMm(originalY);
         return false;
     }
     
     /**
-     * Find furniture in catalog by name (case-insensitive)
+     * Working state of one layout pass
+     * Placed pieces are kept both in a spatial index (exact neighbour checks) and in an
+     * occupancy bitmap (constant-cost-per-row footprint checks and free slot search)
+     * Both hold each piece inflated by its own margin plus the largest margin of any category,
+     * so a footprint that is free there keeps the required gap whatever its category
+     */
+    private final class PlacementState {
+        private final int length;  // Room dimensions in millimetres, converted once
+        private final int width;
+        private final int budget;
+        private final LayoutRuleSet rules;
+        private final FloorPlan plan;
+        private final SpatialGrid<Placed> index;
+        private final OccupancyBitmap occupancy;
+        private final List<FeasibleRegionMap> feasibleRegions = new ArrayList<>();  // One per footprint size
+        private final CollisionProbe probe = new CollisionProbe();
+        
+        PlacementState(Room room, LayoutRuleSet rules) {
+            this.length = room.getLengthMm();
+            this.width = room.getWidthMm();
+            this.budget = room.getBudget();
+            this.rules = rules;
+            this.plan = room.getFloorPlan();
+            this.index = new SpatialGrid<>(length, width, Math.max(1, Millimetres.fromMeters(spatialIndexCellSize)));
+            
+            // The wall clearance band, floor outside the outline and keep-out zones are never available;
+            // the plan rasterizes them once per room and each pass starts from a copy
+            this.occupancy = plan.blockedCells(Math.max(1, Millimetres.fromMeters(occupancyResolution)),
+                    rules.getWallClearanceMm());
+        }
+        
+        /**
+         * Check the footprint against the occupancy bitmap only
+         * A true answer is exact; false may be a rounding artefact at cell borders
+         */
+        boolean isFootprintFree(FurniturePosition position) {
+            return occupancy.isFree(position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm());
+        }
+        
+        /**
+         * Check wall clearance and collisions, using the bitmap first and exact geometry second
+         * 
+         * @param margin Margin of the piece's category
+         */
+        boolean isClear(FurniturePosition position, int margin) {
+            return isFootprintFree(position) ||
+                   (fitsInRoomWithClearance(position, length, width, rules.getWallClearanceMm()) &&
+                    fitsFloorPlan(position) &&
+                    findCollision(position, margin) == null);
+        }
+        
+        /**
+         * Exact outline and keep-out test; always true for a rectangular room
+         */
+        boolean fitsFloorPlan(FurniturePosition position) {
+            return plan.isRectangle() ||
+                   plan.fits(position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm(),
+                           rules.getWallClearanceMm());
+        }
+        
+        /**
+         * Find a placed piece that collides with the given position
+         * Only neighbours whose inflated box overlaps the candidate are examined
+         * 
+         * @param margin Margin of the piece's category
+         * @return Colliding piece, or null if the position is clear
+         */
+        FurniturePosition findCollision(FurniturePosition position, int margin) {
+            probe.position = position;
+            probe.margin = margin;
+            Placed collision = index.findFirst(
+                    position.getXMm(), position.getYMm(), position.getMaxXMm(), position.getMaxYMm(), probe);
+            probe.position = null;
+            return collision != null ? collision.position : null;
+        }
+        
+        /**
+         * Feasible-region map already built for a footprint size, or null
+         * A layout has only a handful of sizes, so a linear scan finds it
+         */
+        FeasibleRegionMap cachedFeasibleRegion(int columns, int rows) {
+            for (int i = 0; i < feasibleRegions.size(); i++) {
+                FeasibleRegionMap region = feasibleRegions.get(i);
+                if (region.getWidth() == columns && region.getHeight() == rows) {
+                    return region;
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * Feasible-region map for a footprint size in cells
+         * Built on first use and reused by every later piece of the same footprint size
+         */
+        FeasibleRegionMap feasibleRegion(int columns, int rows) {
+            FeasibleRegionMap region = cachedFeasibleRegion(columns, rows);
+            if (region == null) {
+                region = new FeasibleRegionMap(occupancy, columns, rows);
+                feasibleRegions.add(region);
+            }
+            return region;
+        }
+        
+        /**
+         * Register a placed piece under its inflated bounding box
+         */
+        void place(FurniturePosition position) {
+            int margin = rules.marginMmOf(position.getFurniture());
+            int inflation = margin + rules.getMaxMarginMm();
+            int minX = position.getXMm() - inflation;
+            int minY = position.getYMm() - inflation;
+            int maxX = position.getMaxXMm() + inflation;
+            int maxY = position.getMaxYMm() + inflation;
+            index.insert(new Placed(position, margin), minX, minY, maxX, maxY);
+            occupancy.occupy(minX, minY, maxX, maxY);
+            
+            if (!feasibleRegions.isEmpty()) {
+                int c0 = Math.max(0, occupancy.cellFloor(minX));
+                int r0 = Math.max(0, occupancy.cellFloor(minY));
+                int c1 = Math.min(occupancy.getColumns(), occupancy.cellCeil(maxX));
+                int r1 = Math.min(occupancy.getRows(), occupancy.cellCeil(maxY));
+                if (c0 < c1 && r0 < r1) {
+                    for (int i = 0; i < feasibleRegions.size(); i++) {
+                        feasibleRegions.get(i).occupy(c0, r0, c1 - c0, r1 - r0);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Spatial index filter matching placed pieces that collide with the probed position
+     * One instance per placement state, re-aimed before each query instead of capturing a lambda
      */
-    private Optional<Furniture> findFurnitureByName(List<Furniture> furniture, String name) {
-        return furniture.stream()
-                .filter(f -> f.getName().equalsIgnoreCase(name.trim()))
-                .findFirst();
+    private static final class CollisionProbe implements Predicate<Placed> {
+        private FurniturePosition position;
+        private int margin;
+        
+        @Override
+        public boolean test(Placed existing) {
+            return hasCollision(position, existing.position, margin + existing.margin);
+        }
+    }
+    
+    /**
+     * Placed piece with its category margin, as stored in the spatial index
+     */
+    private static final class Placed {
+        private final FurniturePosition position;
+        private final int margin;
+        
+        Placed(FurniturePosition position, int margin) {
+            this.position = position;
+            this.margin = margin;
+        }
     }
 }
@@ -0,0 +1,176 @@
+package com.interiordesign.service;
+
+import com.interiordesign.geometry.Millimetres;
+import com.interiordesign.geometry.SpatialGrid;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default layout objective: a weighted sum of placed items, budget use, free walkway area,
+ * clearance between pieces and a penalty for pieces the rule engine had to move
+ */
+@Component
+public class WeightedLayoutObjective implements LayoutObjective {
+    
+    static final double CLEARANCE_CAP = 1.0;  // Spare gap (meters) beyond which more clearance earns nothing
+    
+    private final LayoutRules layoutRules;
+    
+    @Value("${layout.objective.weight.items:10}")
+    private double itemsWeight = 10;
+    
+    @Value("${layout.objective.weight.budget:5}")
+    private double budgetWeight = 5;
+    
+    @Value("${layout.objective.weight.walkway:2}")
+    private double walkwayWeight = 2;
+    
+    @Value("${layout.objective.weight.clearance:1}")
+    private double clearanceWeight = 1;
+    
+    @Value("${layout.objective.weight.adjustment:1}")
+    private double adjustmentWeight = 1;
+    
+    public WeightedLayoutObjective(LayoutRules layoutRules) {
+        this.layoutRules = layoutRules;
+    }
+    
+    @Override
+    public double score(Room room, RoomLayout layout) {
+        List<FurniturePosition> furniture = layout.getFurniture();
+        int count = furniture.size();
+        int[] minX = new int[count];
+        int[] minY = new int[count];
+        int[] maxX = new int[count];
+        int[] maxY = new int[count];
+        int itemCount = 0;
+        double occupiedArea = 0;
+        for (int i = 0; i < count; i++) {
+            FurniturePosition position = furniture.get(i);
+            minX[i] = position.getXMm();
+            minY[i] = position.getYMm();
+            maxX[i] = position.getMaxXMm();
+            maxY[i] = position.getMaxYMm();
+            itemCount += pieceCount(position.getFurniture());
+            occupiedArea += footprintArea(position.getFurniture());
+        }
+        
+        Object adjusted = layout.getMetadata().get(RuleEngine.METADATA_ADJUSTED_PLACEMENTS);
+        int adjustments = adjusted instanceof Number ? ((Number) adjusted).intValue() : 0;
+        
+        return score(room, itemCount, layout.getTotalCost(), occupiedArea,
+                clearanceShare(minX, minY, maxX, maxY, count, layoutRules.current().getDefaultGap()), adjustments);
+    }
+    
+    /**
+     * Score a layout from its aggregate figures
+     * Shared with {@link LayoutRefiner}, which keeps its working layout in primitive arrays
+     * 
+     * @param clearanceShare Result of {@link #clearanceShare}
+     */
+    double score(Room room, int itemCount, int totalCost, double occupiedArea, double clearanceShare,
+                 int adjustments) {
+        double roomArea = room.getArea();
+        double budgetUse = room.getBudget() > 0 ? (double) totalCost / room.getBudget() : 0;
+        double walkwayShare = roomArea > 0 ? Math.max(0, roomArea - occupiedArea) / roomArea : 0;
+        
+        return itemsWeight * itemCount
+                + budgetWeight * Math.min(1.0, budgetUse)
+                + walkwayWeight * walkwayShare
+                + clearanceWeight * clearanceShare
+                - adjustmentWeight * adjustments;
+    }
+    
+    /**
+     * Number of catalog pieces a placed piece stands for; a furniture set counts each member
+     */
+    static int pieceCount(Furniture furniture) {
+        return furniture instanceof FurnitureGroup group ? group.getMembers().size() : 1;
+    }
+    
+    /**
+     * Floor area covered by a placed piece; a furniture set covers its members, not its whole block
+     */
+    static double footprintArea(Furniture furniture) {
+        if (furniture instanceof FurnitureGroup group) {
+            double area = 0;
+            for (FurniturePosition member : group.getMembers()) {
+                area += member.getFurniture().getWidth() * member.getFurniture().getDepth();
+            }
+            return area;
+        }
+        return furniture.getWidth() * furniture.getDepth();
+    }
+    
+    /**
+     * Mean spare clearance of the first {@code count} boxes (in millimetres), in [0, 1]
+     * Each box contributes the distance to its nearest neighbour beyond the default furniture gap,
+     * capped at {@link #CLEARANCE_CAP}; a lone box counts as fully clear
+     * Neighbours beyond the cap do not matter, so each box only queries a {@link SpatialGrid} within reach
+     * 
+     * @param gap Default furniture gap of the rule set
+     */
+    static double clearanceShare(int[] minX, int[] minY, int[] maxX, int[] maxY, int count, double gap) {
+        if (count < 2) {
+            return count;
+        }
+        double capSq = clearanceCapSq(gap);
+        int reach = Millimetres.fromMeters(Math.sqrt(capSq)) + 1;  // Rounded up past the cap
+        int extentX = 0;
+        int extentY = 0;
+        for (int i = 0; i < count; i++) {
+            extentX = Math.max(extentX, maxX[i]);
+            extentY = Math.max(extentY, maxY[i]);
+        }
+        SpatialGrid<Integer> grid = new SpatialGrid<>(extentX, extentY, reach);
+        for (int i = 0; i < count; i++) {
+            grid.insert(i, minX[i], minY[i], maxX[i], maxY[i]);
+        }
+        
+        double total = 0;
+        double[] nearestSq = new double[1];
+        for (int i = 0; i < count; i++) {
+            int box = i;
+            nearestSq[0] = capSq;
+            grid.findFirst(minX[i] - reach, minY[i] - reach, maxX[i] + reach, maxY[i] + reach, j -> {
+                if (j != box) {
+                    nearestSq[0] = Math.min(nearestSq[0], distanceSq(minX, minY, maxX, maxY, box, j));
+                }
+                return false;  // Visit every neighbour within reach
+            });
+            total += spareClearance(nearestSq[0], gap);
+        }
+        return total / (count * CLEARANCE_CAP);
+    }
+    
+    /**
+     * Squared nearest-neighbour distance beyond which more clearance earns nothing
+     */
+    static double clearanceCapSq(double gap) {
+        return (gap + CLEARANCE_CAP) * (gap + CLEARANCE_CAP);
+    }
+    
+    /**
+     * Squared distance in m² between millimetre boxes i and j (0 if they touch or overlap)
+     */
+    static double distanceSq(int[] minX, int[] minY, int[] maxX, int[] maxY, int i, int j) {
+        long dx = Math.max(0, Math.max(minX[j] - maxX[i], minX[i] - maxX[j]));
+        long dy = Math.max(0, Math.max(minY[j] - maxY[i], minY[i] - maxY[j]));
+        return Millimetres.toSquareMeters(dx * dx + dy * dy);
+    }
+    
+    /**
+     * Clearance beyond the default furniture gap for a nearest-neighbour distance,
+     * given squared and at most {@link #clearanceCapSq}
+     */
+    static double spareClearance(double nearestSq, double gap) {
+        return Math.max(0, Math.sqrt(nearestSq) - gap);
+    }
+}
@@ -49,3 +49,42 @@ INSERT INTO furniture (name, width, depth, price, category) VALUES
 ('Desk', 1.4, 0.7, 400, 'desk'),
 ('Office Chair', 0.6, 0.6, 200, 'chair'),
 ('Filing Cabinet', 0.5, 0.6, 250, 'storage');
+
+-- ====================================
+-- Furniture Sets
+-- ====================================
+-- Members are listed anchor first and kept at least 0.3m apart
+
+INSERT INTO furniture_group (name) VALUES
+('Living Room Set'),
+('Bedroom Set');
+
+-- Living Room Set: TV stand facing the sofa across the coffee table
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 0.0, 2.0, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Living Room Set' AND f.name = 'Sofa';
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 0.4, 1.0, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Living Room Set' AND f.name = 'Coffee Table';
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 0.25, 0.0, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Living Room Set' AND f.name = 'TV Stand';
+
+-- Bedroom Set: queen bed between two nightstands
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 0.9, 0.0, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Bedroom Set' AND f.name = 'Queen Bed';
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 0.0, 1.9, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Bedroom Set' AND f.name = 'Nightstand';
+INSERT INTO furniture_group_member (group_id, furniture_id, offset_x, offset_y, rotation)
+SELECT g.id, f.id, 3.4, 1.9, 0 FROM furniture_group g, furniture f
+WHERE g.name = 'Bedroom Set' AND f.name = 'Nightstand';
+
+-- ====================================
+-- Layout Rules
+-- ====================================
+INSERT INTO layout_rule (category, rule_type, target_category, rule_value) VALUES
+('bed', 'WALKWAY', NULL, 0.6),
+('tvstand', 'FACES', 'sofa', 4.0),
+('dining', 'GAP', NULL, 0.6);
@@ -2,8 +2,11 @@
 -- Interior Design Database Schema
 -- ====================================
 
--- Drop table if exists
+-- Drop tables if exist (sets reference furniture, so they go first)
+DROP TABLE IF EXISTS furniture_group_member;
+DROP TABLE IF EXISTS furniture_group;
 DROP TABLE IF EXISTS furniture;
+DROP TABLE IF EXISTS layout_rule;
 
 -- Create furniture table
 CREATE TABLE furniture (
@@ -21,3 +24,37 @@ CREATE TABLE furniture (
 -- Create index for faster queries
 CREATE INDEX idx_furniture_category ON furniture(category);
 CREATE INDEX idx_furniture_price ON furniture(price);
+
+-- Create furniture set tables
+-- A set is placed as one block; members keep their offsets (meters) and rotation inside it
+CREATE TABLE furniture_group (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE furniture_group_member (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    group_id BIGINT NOT NULL,
+    furniture_id BIGINT NOT NULL,
+    offset_x DOUBLE NOT NULL,
+    offset_y DOUBLE NOT NULL,
+    rotation INT DEFAULT 0 NOT NULL,
+    CONSTRAINT fk_member_group FOREIGN KEY (group_id) REFERENCES furniture_group(id),
+    CONSTRAINT fk_member_furniture FOREIGN KEY (furniture_id) REFERENCES furniture(id),
+    CONSTRAINT chk_offset CHECK (offset_x >= 0 AND offset_y >= 0)
+);
+
+-- Create layout rule table
+-- Per-category placement rules; rule_value is in meters
+--   GAP: minimum gap the category keeps to other pieces
+--   WALKWAY: free floor strip of this width needed along at least one side
+--   FACES: a target_category piece must be directly across a long side, within rule_value
+CREATE TABLE layout_rule (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    category VARCHAR(50) NOT NULL,
+    rule_type VARCHAR(20) NOT NULL,
+    target_category VARCHAR(50),
+    rule_value DOUBLE NOT NULL,
+    CONSTRAINT chk_rule_type CHECK (rule_type IN ('GAP', 'WALKWAY', 'FACES')),
+    CONSTRAINT chk_rule_value CHECK (rule_value >= 0)
+);
@@ -0,0 +1,67 @@
+package com.interiordesign.ai;
+
+import com.interiordesign.ai.exception.AIServiceException;
+import com.interiordesign.model.Room;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AISuggestionCacheTest {
+
+    private final AISuggestionCache cache = new AISuggestionCache();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void anErrorInTheLoaderReleasesParkedWaiters() throws Exception {
+        AISuggestionCache.Key key = cache.keyFor(new Room(5.0, 4.0, 3000), 1, 1);
+        Error failure = new Error("loader failed");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> leader = executor.submit(() -> cache.fetch(key, false, () -> {
+            loading.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<?> waiter = executor.submit(() -> cache.fetch(key, false, () -> {
+            throw new AssertionError("The waiter must join the leader's call");
+        }));
+        while ((Integer) cache.stats().get("waiting") == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderFailure.getCause());
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        AIServiceException cause = assertInstanceOf(AIServiceException.class, waiterFailure.getCause());
+        assertSame(failure, cause.getCause());
+        assertEquals(0, cache.stats().get("inFlight"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.interiordesign.dao;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurnitureGroup;
+import com.interiordesign.model.FurniturePosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CatalogSnapshotTest {
+
+    private final Furniture lounge = new Furniture(1L, "lounge", 2.0, 0.9, 800, "sofa");
+    private final Furniture table = new Furniture(2L, "Table", 1.2, 0.8, 300, "table");
+    private final FurnitureGroup loungeSet = new FurnitureGroup(10L, "Lounge",
+            List.of(new FurniturePosition(lounge, 0, 0), new FurniturePosition(table, 0, 1.2)));
+    private final CatalogSnapshot snapshot = CatalogSnapshot.of(1, List.of(lounge, table), List.of(loungeSet));
+
+    @Test
+    void itemWinsOverASetSpelledExactly() {
+        assertSame(lounge, snapshot.findPlaceable("Lounge"));
+        assertSame(lounge, snapshot.findPlaceable("lounge"));
+    }
+
+    @Test
+    void setIsFoundWhenNoItemMatches() {
+        FurnitureGroup diningSet = new FurnitureGroup(11L, "Dining",
+                List.of(new FurniturePosition(table, 0, 0)));
+        CatalogSnapshot withDining = CatalogSnapshot.of(1, List.of(lounge, table), List.of(diningSet));
+        assertSame(diningSet, withDining.findPlaceable("Dining"));
+        assertSame(diningSet, withDining.findPlaceable(" dining "));
+        assertNull(withDining.findPlaceable("Bed"));
+    }
+}
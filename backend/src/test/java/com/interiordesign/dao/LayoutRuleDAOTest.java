@@ -0,0 +1,40 @@
+package com.interiordesign.dao;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.LayoutRule;
+import com.interiordesign.service.LayoutRuleSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LayoutRuleDAOTest {
+
+    @Test
+    void anUnknownRuleTypeIsReadAsNullWithoutLosingTheOtherRows() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:layout_rule_dao_test;DB_CLOSE_DELAY=-1", "sa", ""));
+        // No CHECK on rule_type: rows written by a newer schema may carry types this build does not know
+        jdbcTemplate.execute("CREATE TABLE layout_rule (id BIGINT PRIMARY KEY, category VARCHAR(50), " +
+                "rule_type VARCHAR(20), target_category VARCHAR(50), rule_value DOUBLE)");
+        jdbcTemplate.update("INSERT INTO layout_rule VALUES (1, 'dining', 'GAP', NULL, 0.6)");
+        jdbcTemplate.update("INSERT INTO layout_rule VALUES (2, 'sofa', 'SPIRAL', NULL, 1.0)");
+        jdbcTemplate.update("INSERT INTO layout_rule VALUES (3, 'desk', ' walkway ', NULL, 0.8)");
+
+        List<LayoutRule> rules = new LayoutRuleDAO(jdbcTemplate).findAll();
+
+        assertEquals(3, rules.size());
+        assertEquals(LayoutRule.Type.GAP, rules.get(0).getType());
+        assertNull(rules.get(1).getType());
+        assertEquals(LayoutRule.Type.WALKWAY, rules.get(2).getType());
+
+        // The compiler skips the unknown row and applies the others
+        LayoutRuleSet ruleSet = LayoutRuleSet.compile(1, rules, 0.5, 0.3);
+        assertEquals(300, ruleSet.marginMmOf(new Furniture(1L, "Table", 1.6, 0.9, 400, "dining")));
+        assertEquals(150, ruleSet.marginMmOf(new Furniture(2L, "Sofa", 2.0, 0.9, 800, "sofa")));
+    }
+}
@@ -0,0 +1,114 @@
+package com.interiordesign.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CollisionKernelTest {
+
+    @Test
+    void vectorAndScalarFindTheSameFirstCollision() {
+        // The surefire argLine adds jdk.incubator.vector; without it there is only the scalar path
+        assumeTrue(CollisionKernel.isVectorized(), "jdk.incubator.vector is not loaded");
+        Random random = new Random(18);
+        int lanes = CollisionKernel.laneCount();
+        for (int trial = 0; trial < 5_000; trial++) {
+            // Lengths around multiples of the lane count exercise the scalar remainder
+            int size = random.nextInt(4 * lanes + 3);
+            Boxes boxes = randomBoxes(random, size);
+            int from = size == 0 ? 0 : random.nextInt(size + 1);
+            int to = from + random.nextInt(size - from + 1);
+            int[] candidate = randomBox(random);
+            int margin = random.nextInt(3) * 10;
+
+            assertEquals(
+                    CollisionKernel.scalarFirstCollision(candidate[0], candidate[1], candidate[2], candidate[3], margin,
+                            boxes.minX, boxes.minY, boxes.maxX, boxes.maxY, boxes.margins, from, to),
+                    VectorCollisionKernel.firstCollision(candidate[0], candidate[1], candidate[2], candidate[3], margin,
+                            boxes.minX, boxes.minY, boxes.maxX, boxes.maxY, boxes.margins, from, to));
+        }
+    }
+
+    @Test
+    void firstClearMatchesPerCandidateScalarTests() {
+        Random random = new Random(19);
+        for (int trial = 0; trial < 2_000; trial++) {
+            int m = random.nextInt(40);
+            Boxes placed = randomBoxes(random, m);
+            int n = 1 + random.nextInt(20);
+            Boxes candidates = randomBoxes(random, n);
+            int margin = random.nextInt(3) * 10;
+
+            boolean[] hits = new boolean[n];
+            int firstClear = CollisionKernel.firstClear(candidates.minX, candidates.minY, candidates.maxX,
+                    candidates.maxY, n, margin, 10, 10, 190, 190,
+                    placed.minX, placed.minY, placed.maxX, placed.maxY, placed.margins, m, hits);
+
+            boolean[] expectedHits = new boolean[n];
+            int expectedFirstClear = -1;
+            for (int k = 0; k < n; k++) {
+                expectedHits[k] = !CollisionKernel.inside(candidates.minX[k], candidates.minY[k],
+                        candidates.maxX[k], candidates.maxY[k], 10, 10, 190, 190) ||
+                        CollisionKernel.scalarFirstCollision(candidates.minX[k], candidates.minY[k],
+                                candidates.maxX[k], candidates.maxY[k], margin,
+                                placed.minX, placed.minY, placed.maxX, placed.maxY, placed.margins, 0, m) >= 0;
+                if (!expectedHits[k] && expectedFirstClear < 0) {
+                    expectedFirstClear = k;
+                }
+            }
+            assertArrayEquals(expectedHits, hits);
+            assertEquals(expectedFirstClear, firstClear);
+        }
+    }
+
+    @Test
+    void boxesExactlyTheGapApartDoNotCollide() {
+        assertFalse(CollisionKernel.collides(0, 0, 100, 100, 20, 120, 0, 220, 100));
+        assertTrue(CollisionKernel.collides(0, 0, 100, 100, 21, 120, 0, 220, 100));
+        assertFalse(CollisionKernel.collides(0, 0, 100, 100, 0, 100, 100, 200, 200));
+    }
+
+    /**
+     * Boxes on a 10 mm grid in a 200 mm square, so equal and touching coordinates are common
+     */
+    private static Boxes randomBoxes(Random random, int size) {
+        Boxes boxes = new Boxes(size);
+        for (int i = 0; i < size; i++) {
+            int[] box = randomBox(random);
+            boxes.minX[i] = box[0];
+            boxes.minY[i] = box[1];
+            boxes.maxX[i] = box[2];
+            boxes.maxY[i] = box[3];
+            boxes.margins[i] = random.nextInt(3) * 10;
+        }
+        return boxes;
+    }
+
+    private static int[] randomBox(Random random) {
+        int minX = random.nextInt(20) * 10;
+        int minY = random.nextInt(20) * 10;
+        return new int[] {minX, minY, minX + (1 + random.nextInt(4)) * 10, minY + (1 + random.nextInt(4)) * 10};
+    }
+
+    private static final class Boxes {
+        final int[] minX;
+        final int[] minY;
+        final int[] maxX;
+        final int[] maxY;
+        final int[] margins;
+
+        Boxes(int size) {
+            minX = new int[size];
+            minY = new int[size];
+            maxX = new int[size];
+            maxY = new int[size];
+            margins = new int[size];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.interiordesign.geometry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OccupancyBitmapTest {
+
+    @Test
+    void findNearestFitIsAsCloseAsTheFeasibleRegion() {
+        Random random = new Random(8);
+        for (int trial = 0; trial < 300; trial++) {
+            OccupancyBitmap bitmap = randomBitmap(random, 20 + random.nextInt(120), 20 + random.nextInt(120));
+            int width = 1 + random.nextInt(12);
+            int height = 1 + random.nextInt(12);
+            int column = random.nextInt(bitmap.getColumns());
+            int row = random.nextInt(bitmap.getRows());
+
+            long fit = bitmap.findNearestFit(column, row, width, height, 1, Integer.MAX_VALUE);
+            long nearest = new FeasibleRegionMap(bitmap, width, height).findNearest(column, row);
+            assertEquals(nearest == OccupancyBitmap.NO_CELL, fit == OccupancyBitmap.NO_CELL);
+            if (fit != OccupancyBitmap.NO_CELL) {
+                assertTrue(bitmap.isFreeCells(OccupancyBitmap.cellColumn(fit), OccupancyBitmap.cellRow(fit), width, height));
+                assertEquals(distanceSq(nearest, column, row), distanceSq(fit, column, row));
+            }
+        }
+    }
+
+    @Test
+    void findNearestFitGivesUpWhenTheBudgetRunsOut() {
+        OccupancyBitmap bitmap = new OccupancyBitmap(100, 100, 1);
+        bitmap.occupyCells(0, 0, 100, 90);
+        assertEquals(OccupancyBitmap.NO_CELL, bitmap.findNearestFit(50, 10, 5, 5, 1, 100));
+        assertEquals(OccupancyBitmap.packCell(50, 90), bitmap.findNearestFit(50, 10, 5, 5, 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void findNearestFitOnACoarseLatticeOnlyReturnsLatticePoints() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 100; trial++) {
+            OccupancyBitmap bitmap = randomBitmap(random, 80, 80);
+            int step = 2 + random.nextInt(5);
+            long fit = bitmap.findNearestFit(40, 40, 4, 4, step, Integer.MAX_VALUE);
+            if (fit != OccupancyBitmap.NO_CELL) {
+                assertEquals(0, (OccupancyBitmap.cellColumn(fit) - 40) % step);
+                assertEquals(0, (OccupancyBitmap.cellRow(fit) - 40) % step);
+                assertTrue(bitmap.isFreeCells(OccupancyBitmap.cellColumn(fit), OccupancyBitmap.cellRow(fit), 4, 4));
+            }
+        }
+    }
+
+    static OccupancyBitmap randomBitmap(Random random, int columns, int rows) {
+        OccupancyBitmap bitmap = new OccupancyBitmap(columns, rows, 1);
+        int obstacles = random.nextInt(30);
+        for (int i = 0; i < obstacles; i++) {
+            int column = random.nextInt(columns);
+            int row = random.nextInt(rows);
+            int width = 1 + random.nextInt(Math.min(30, columns - column));
+            int height = 1 + random.nextInt(Math.min(30, rows - row));
+            bitmap.occupyCells(column, row, width, height);
+        }
+        return bitmap;
+    }
+
+    static long distanceSq(long cell, int column, int row) {
+        long dc = OccupancyBitmap.cellColumn(cell) - column;
+        long dr = OccupancyBitmap.cellRow(cell) - row;
+        return dc * dc + dr * dr;
+    }
+}
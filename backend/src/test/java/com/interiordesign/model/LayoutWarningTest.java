@@ -0,0 +1,16 @@
+package com.interiordesign.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LayoutWarningTest {
+
+    @Test
+    void aNullSubjectRendersAsUnnamed() {
+        assertEquals("Furniture 'unnamed' not found in catalog", LayoutWarning.NOT_IN_CATALOG.render(null));
+        assertEquals("Could not place unnamed at suggested position", LayoutWarning.NOT_PLACED.render(null));
+        assertEquals("No furniture could be placed with the given constraints",
+                LayoutWarning.NOTHING_PLACED.render(null));
+    }
+}
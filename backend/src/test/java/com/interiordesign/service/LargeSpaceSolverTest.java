@@ -0,0 +1,92 @@
+package com.interiordesign.service;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.LayoutRule;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LargeSpaceSolverTest {
+
+    private static final long TARGET_MS = 1_000;
+
+    private static final Room ROOM = new Room(60.0, 40.0, Integer.MAX_VALUE);
+
+    private static final LayoutRuleSet RULES = LayoutRuleSet.compile(1, List.of(
+            new LayoutRule(1L, "dining", LayoutRule.Type.GAP, null, 0.6),
+            new LayoutRule(2L, "desk", LayoutRule.Type.GAP, null, 0.5)), 0.5, 0.3);
+
+    private static final Furniture[] CATALOG = {
+            new Furniture(1L, "Desk", 1.4, 0.7, 250, "desk"),
+            new Furniture(2L, "Office Chair", 0.6, 0.6, 120, "chair"),
+            new Furniture(3L, "Sofa", 2.0, 0.9, 800, "sofa"),
+            new Furniture(4L, "Dining Table", 1.6, 0.9, 400, "dining"),
+            new Furniture(5L, "Bookshelf", 0.8, 0.35, 150, "bookshelf"),
+            new Furniture(6L, "Side Table", 0.45, 0.45, 60, "sidetable")
+    };
+
+    private final ForkJoinPool pool = new ForkJoinPool();
+    private final LargeSpaceSolver solver = new LargeSpaceSolver(fixedRules(), pool);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void placesAThousandPiecesOnSixtyByFortyMetres() {
+        RoomLayout layout = solver.place(ROOM, thousandPieces());
+
+        assertEquals(0, layout.getMetadata().get("seamConflicts"));
+        assertEquals(1_000, layout.getFurnitureCount());
+
+        // The kept layout satisfies the same wall clearance and gap rules as a validated saved layout
+        RuleEngine ruleEngine = new RuleEngine(new BudgetSelector(), fixedRules());
+        assertEquals(List.of(), ruleEngine.validateLayout(ROOM, layout.getFurniture()));
+    }
+
+    /**
+     * Wall-clock check against the placement target; off by default, run with -Pbenchmark
+     * The solver pool uses every core of the machine running the test, so the result only
+     * speaks for the target's 8-core figure on an 8-core machine
+     */
+    @Test
+    @Tag("benchmark")
+    void placesAThousandPiecesWithinTheTarget() {
+        List<Furniture> pieces = thousandPieces();
+        solver.place(ROOM, pieces);  // Warm-up: the target applies to a running service
+
+        long startTime = System.nanoTime();
+        solver.place(ROOM, pieces);
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+        assertTrue(elapsedMs < TARGET_MS, "Placement took " + elapsedMs + " ms on " + pool.getParallelism()
+                + " threads, target is " + TARGET_MS + " ms");
+    }
+
+    private static List<Furniture> thousandPieces() {
+        List<Furniture> pieces = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            pieces.add(CATALOG[i % CATALOG.length]);
+        }
+        return pieces;
+    }
+
+    private static LayoutRules fixedRules() {
+        return new LayoutRules(null) {
+            @Override
+            public LayoutRuleSet current() {
+                return RULES;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.interiordesign.service;
+
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutRule;
+import com.interiordesign.model.LayoutViolation;
+import com.interiordesign.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayoutRuleSetTest {
+
+    private static final LayoutRuleSet RULES = LayoutRuleSet.compile(1, List.of(
+            new LayoutRule(1L, "sofa", LayoutRule.Type.FACES, "tv", 2.0),
+            new LayoutRule(2L, "desk", LayoutRule.Type.WALKWAY, null, 0.6)), 0.5, 0.3);
+
+    private static final Room ROOM = new Room(5.0, 4.0, 5000);
+
+    private static final Furniture SOFA = new Furniture(1L, "Sofa", 2.0, 0.9, 800, "sofa");
+    private static final Furniture TV = new Furniture(2L, "TV Stand", 1.2, 0.4, 300, "tv");
+    private static final Furniture DESK = new Furniture(3L, "Desk", 1.2, 0.6, 250, "desk");
+    private static final Furniture CHAIR = new Furniture(4L, "Chair", 0.5, 0.5, 100, "chair");
+
+    @Test
+    void aTargetExactlyAtTheFacingDistanceCounts() {
+        // The sofa's far long side is at y = 1.4 m, so a TV stand starting at 3.4 m is exactly 2 m away
+        assertTrue(RULES.checkAdjacency(ROOM, List.of(
+                new FurniturePosition(SOFA, 1.0, 0.5, 0), new FurniturePosition(TV, 1.4, 3.4, 0))).isEmpty());
+
+        List<LayoutViolation> violations = RULES.checkAdjacency(ROOM, List.of(
+                new FurniturePosition(SOFA, 1.0, 0.5, 0), new FurniturePosition(TV, 1.4, 3.401, 0)));
+        assertEquals(1, violations.size());
+        assertEquals(0, violations.get(0).getIndex());
+
+        // Without any TV stand in the layout the rule has nothing to face
+        assertTrue(RULES.checkAdjacency(ROOM, List.of(new FurniturePosition(SOFA, 1.0, 0.5, 0))).isEmpty());
+    }
+
+    @Test
+    void aPieceTouchingTheWalkwayDoesNotBlockIt() {
+        // The desk's left and bottom strips leave the room and a chair blocks the right one,
+        // so only the strip above, between y = 1.1 m and 1.7 m, can serve
+        FurniturePosition desk = new FurniturePosition(DESK, 0.5, 0.5, 0);
+        FurniturePosition right = new FurniturePosition(CHAIR, 1.7, 0.5, 0);
+
+        assertTrue(RULES.checkAdjacency(ROOM, List.of(desk, right,
+                new FurniturePosition(CHAIR, 0.5, 1.7, 0))).isEmpty());
+
+        List<LayoutViolation> violations = RULES.checkAdjacency(ROOM, List.of(desk, right,
+                new FurniturePosition(CHAIR, 0.5, 1.699, 0)));
+        assertEquals(1, violations.size());
+        assertEquals(LayoutViolation.Type.ADJACENCY, violations.get(0).getType());
+        assertEquals(0, violations.get(0).getIndex());
+    }
+}
@@ -0,0 +1,67 @@
+package com.interiordesign.service;
+
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.dao.FurnitureDAO;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.FurniturePosition;
+import com.interiordesign.model.LayoutValidationRequest;
+import com.interiordesign.model.LayoutValidationResponse;
+import com.interiordesign.model.LayoutViolation;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayoutValidationServiceTest {
+
+    private static final LayoutRuleSet RULES = LayoutRuleSet.compile(1, List.of(), 0.5, 0.3);
+    private static final CatalogSnapshot CATALOG =
+            CatalogSnapshot.of(1, List.of(new Furniture(1L, "Chair", 0.5, 0.5, 10, "chair")));
+
+    @Test
+    void aMalformedRoomFailsOnlyItsOwnLayout() {
+        LayoutValidationService service = new LayoutValidationService(new FurnitureDAO(null) {
+            @Override
+            public CatalogSnapshot getSnapshot() {
+                return CATALOG;
+            }
+        }, new RuleEngine(new BudgetSelector(), new LayoutRules(null) {
+            @Override
+            public LayoutRuleSet current() {
+                return RULES;
+            }
+        }));
+        ReflectionTestUtils.setField(service, "maxBatch", 10);
+
+        Room crossed = new Room(5.0, 4.0, 1000);
+        crossed.setOutline(List.of(new RoomPoint(0.0, 0.0), new RoomPoint(5.0, 4.0),
+                new RoomPoint(5.0, 0.0), new RoomPoint(0.0, 4.0)));
+        LayoutValidationResponse response = service.validate(new LayoutValidationRequest(List.of(
+                layout("good", new Room(5.0, 4.0, 1000)),
+                layout("crossed", crossed),
+                layout("after", new Room(5.0, 4.0, 1000)))));
+
+        assertEquals(3, response.getLayoutsChecked());
+        assertEquals(1, response.getInvalidLayouts());
+        assertTrue(response.getResults().get(0).isValid());
+        assertTrue(response.getResults().get(2).isValid());
+
+        List<LayoutViolation> violations = response.getResults().get(1).getViolations();
+        assertEquals(1, violations.size());
+        assertEquals(LayoutViolation.Type.INVALID_ROOM, violations.get(0).getType());
+        assertEquals(-1, violations.get(0).getIndex());
+        assertEquals("Room outline must not cross itself", violations.get(0).getMessage());
+    }
+
+    private static LayoutValidationRequest.SubmittedLayout layout(String id, Room room) {
+        Furniture chair = new Furniture();
+        chair.setId(1L);
+        return new LayoutValidationRequest.SubmittedLayout(id, room,
+                List.of(new FurniturePosition(chair, 2.0, 2.0, 0)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.interiordesign.service;
+
+import com.interiordesign.ai.model.AILayoutResponse;
+import com.interiordesign.dao.CatalogSnapshot;
+import com.interiordesign.model.Furniture;
+import com.interiordesign.model.Room;
+import com.interiordesign.model.RoomLayout;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation per placement, measured through the JVM's per-thread counters
+ * The result depends on the JVM and its JIT decisions, so the test is a benchmark: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class RuleEngineAllocationTest {
+
+    private static final long MAX_BYTES_PER_PLACEMENT = 1_024;  // About 3x the measured 350 bytes
+    private static final int WARMUP_CALLS = 300;
+    private static final int MEASURED_CALLS = 25;
+
+    private static final LayoutRuleSet RULES = LayoutRuleSet.compile(1, List.of(), 0.5, 0.3);
+
+    @Test
+    void placementsAllocateLessThanTheBound() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "Per-thread allocation counters are not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        RuleEngine engine = new RuleEngine(new BudgetSelector(), new LayoutRules(null) {
+            @Override
+            public LayoutRuleSet current() {
+                return RULES;
+            }
+        });
+        CatalogSnapshot catalog = CatalogSnapshot.of(1, List.of(new Furniture(1L, "Chair", 0.5, 0.5, 10, "chair")));
+        Room room = new Room(20.0, 20.0, 10_000);  // Budget at the API maximum; the knapsack row grows with it
+        AILayoutResponse few = suggestions(10);
+        AILayoutResponse many = suggestions(40);
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            engine.generateLayout(room, catalog, few);
+            engine.generateLayout(room, catalog, many);
+        }
+        assertEquals(40, engine.generateLayout(room, catalog, many).getFurnitureCount());
+
+        // The room-sized bitmaps cost the same at both sizes, so the difference is per placement
+        long bytesPerPlacement = (leastAllocated(threads, engine, room, catalog, many) -
+                leastAllocated(threads, engine, room, catalog, few)) / 30;
+        assertTrue(bytesPerPlacement < MAX_BYTES_PER_PLACEMENT,
+                "Allocated " + bytesPerPlacement + " bytes per placement, bound is " + MAX_BYTES_PER_PLACEMENT);
+    }
+
+    /**
+     * Suggestions on a 1 m grid; every fourth piece is suggested on top of an earlier one, so it takes
+     * the nearest-free-position search instead of the fast path
+     */
+    private static AILayoutResponse suggestions(int count) {
+        List<AILayoutResponse.AIFurniturePlacement> placements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = i % 4 == 3 ? i - 1 : i;
+            placements.add(new AILayoutResponse.AIFurniturePlacement("Chair",
+                    1 + slot % 16, 1 + slot / 16, 0, null));
+        }
+        return new AILayoutResponse(placements, 10 * count, null);
+    }
+
+    private static long leastAllocated(com.sun.management.ThreadMXBean threads, RuleEngine engine, Room room,
+                                       CatalogSnapshot catalog, AILayoutResponse suggestions) {
+        long threadId = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            RoomLayout layout = engine.generateLayout(room, catalog, suggestions);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            assertEquals(suggestions.getFurniture().size(), layout.getFurnitureCount());
+            least = Math.min(least, allocated);
+        }
+        return least;
+    }
+}
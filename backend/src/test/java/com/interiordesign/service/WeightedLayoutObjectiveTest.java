@@ -0,0 +1,64 @@
+package com.interiordesign.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeightedLayoutObjectiveTest {
+
+    private static final double GAP = 0.3;
+
+    @Test
+    void clearanceShareMatchesAllPairs() {
+        Random random = new Random(6);
+        for (int trial = 0; trial < 500; trial++) {
+            int count = 1 + random.nextInt(40);
+            int extent = 2_000 + random.nextInt(20_000);
+            int[] minX = new int[count];
+            int[] minY = new int[count];
+            int[] maxX = new int[count];
+            int[] maxY = new int[count];
+            for (int i = 0; i < count; i++) {
+                minX[i] = random.nextInt(extent);
+                minY[i] = random.nextInt(extent);
+                maxX[i] = minX[i] + random.nextInt(2_500);
+                maxY[i] = minY[i] + random.nextInt(2_500);
+            }
+            assertEquals(allPairs(minX, minY, maxX, maxY, count, GAP),
+                    WeightedLayoutObjective.clearanceShare(minX, minY, maxX, maxY, count, GAP), 1e-12);
+        }
+    }
+
+    @Test
+    void neighboursAtTheCapEdgeCountAsFullyClear() {
+        int reach = (int) Math.round((GAP + WeightedLayoutObjective.CLEARANCE_CAP) * 1000);
+        for (int offset = reach - 2; offset <= reach + 2; offset++) {
+            int[] minX = {0, 1_000 + offset};
+            int[] minY = {0, 0};
+            int[] maxX = {1_000, 2_000 + offset};
+            int[] maxY = {1_000, 1_000};
+            assertEquals(allPairs(minX, minY, maxX, maxY, 2, GAP),
+                    WeightedLayoutObjective.clearanceShare(minX, minY, maxX, maxY, 2, GAP), 1e-12);
+        }
+    }
+
+    private static double allPairs(int[] minX, int[] minY, int[] maxX, int[] maxY, int count, double gap) {
+        if (count < 2) {
+            return count;
+        }
+        double capSq = WeightedLayoutObjective.clearanceCapSq(gap);
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            double nearestSq = capSq;
+            for (int j = 0; j < count; j++) {
+                if (j != i) {
+                    nearestSq = Math.min(nearestSq, WeightedLayoutObjective.distanceSq(minX, minY, maxX, maxY, i, j));
+                }
+            }
+            total += WeightedLayoutObjective.spareClearance(nearestSq, gap);
+        }
+        return total / (count * WeightedLayoutObjective.CLEARANCE_CAP);
+    }
+}
@@ -6,6 +6,8 @@ const FurnitureItem = ({ furniture, scale }) => {
   const furnitureData = furniture.furniture || furniture;
   const xPos = furniture.x ?? 0;
   const yPos = furniture.y ?? 0;
+  // Quarter turns swap the footprint's width and length
+  const rotated = Math.abs(furniture.rotation ?? 0) % 180 === 90;
 
   // Get color and icon for furniture type
   const color = FURNITURE_COLORS[furnitureData.name] || FURNITURE_COLORS['Default'];
@@ -24,8 +26,10 @@ const FurnitureItem = ({ furniture, scale }) => {
   // Calculate position and size in pixels
   const left = xPos * scale;
   const top = yPos * scale;
-  const width = (furnitureData.width ?? 0) * scale;
-  const height = (furnitureData.length ?? 0) * scale;
+  const footprintWidth = rotated ? furnitureData.length : furnitureData.width;
+  const footprintLength = rotated ? furnitureData.width : furnitureData.length;
+  const width = (footprintWidth ?? 0) * scale;
+  const height = (footprintLength ?? 0) * scale;
 
   return (
     <div
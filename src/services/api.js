@@ -38,6 +38,59 @@ export const api = {
       throw handleApiError(error);
     }
   },
+
+  /**
+   * Add one piece to an existing layout without regenerating it
+   * @param {Object} roomData - Room configuration { length, width, budget }
+   * @param {Array} furniture - Current layout placements
+   * @param {Object} item - Placement to add { furniture: { id }, x, y, rotation }
+   * @returns {Promise} Delta with the placed piece and new total cost
+   */
+  addFurniture: async (roomData, furniture, item) => {
+    try {
+      const response = await apiClient.post('/layout/add', {
+        room: roomData, furniture, item, rotation: item.rotation
+      });
+      return response.data;
+    } catch (error) {
+      throw handleApiError(error);
+    }
+  },
+
+  /**
+   * Move one piece of an existing layout
+   * @param {Object} roomData - Room configuration { length, width, budget }
+   * @param {Array} furniture - Current layout placements
+   * @param {number} index - Index of the piece to move
+   * @param {Object} item - New placement { x, y, rotation }; without rotation the piece keeps its current one
+   * @returns {Promise} Delta with the piece's resulting position
+   */
+  moveFurniture: async (roomData, furniture, index, item) => {
+    try {
+      const response = await apiClient.post('/layout/move', {
+        room: roomData, furniture, index, item, rotation: item.rotation
+      });
+      return response.data;
+    } catch (error) {
+      throw handleApiError(error);
+    }
+  },
+
+  /**
+   * Remove one piece from an existing layout
+   * @param {Object} roomData - Room configuration { length, width, budget }
+   * @param {Array} furniture - Current layout placements
+   * @param {number} index - Index of the piece to remove
+   * @returns {Promise} Delta with the removed piece and new total cost
+   */
+  removeFurniture: async (roomData, furniture, index) => {
+    try {
+      const response = await apiClient.post('/layout/remove', { room: roomData, furniture, index });
+      return response.data;
+    } catch (error) {
+      throw handleApiError(error);
+    }
+  },
 };
 
 /**